@@ -7,6 +7,7 @@ import java.util.Vector;
 import weka.classifiers.AbstractClassifier;
 import weka.classifiers.rules.lad.binarization.Binarization;
 import weka.classifiers.rules.lad.binarization.CutpointSet;
+import weka.classifiers.rules.lad.binarization.StreamingBinarization;
 import weka.classifiers.rules.lad.core.BinaryData;
 import weka.classifiers.rules.lad.featureselection.FeatureSelection;
 import weka.classifiers.rules.lad.featureselection.GreedySetCover;
@@ -80,7 +81,12 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 
 	/* Hyperparameters */
 	private double mCutpointTolerance = 0.0;
+	private int mMaxCutpoints = 0;
+	private double mSketchEpsilon = 0.0;
+	private boolean mCollapseColumns = false;
+	private boolean mMergeDuplicates = false;
 	private double mMinimumPurity = 0.85;
+	private int mNumThreads = 1;
 
 	private FeatureSelection mFeatureSelection = new GreedySetCover();
 	private RuleGenerator mRuleGenerator = new MaxRuleGenerator();
@@ -102,11 +108,21 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 	public void buildClassifier(Instances data) throws Exception {
 
 		// Binarization
-		Binarization binarization = new Binarization(mCutpointTolerance);
-		binarization.checkForExceptions();
+		if (mSketchEpsilon > 0) {
+			StreamingBinarization binarization = new StreamingBinarization(mCutpointTolerance, mSketchEpsilon);
+			binarization.checkForExceptions();
 
-		mCutpoints = binarization.fit(data);
-		BinaryData bData = new BinaryData(data, mCutpoints);
+			mCutpoints = binarization.fit(data);
+		} else {
+			Binarization binarization = new Binarization(mCutpointTolerance);
+			binarization.setNumThreads(mNumThreads);
+			binarization.setMaxCutpoints(mMaxCutpoints);
+			binarization.checkForExceptions();
+
+			mCutpoints = binarization.fit(data);
+		}
+
+		BinaryData bData = new BinaryData(data, mCutpoints, mMergeDuplicates);
 
 		/*
 		 * If the separation level required is positive, we need to go through the set
@@ -115,11 +131,16 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 
 		if (mFeatureSelection.getSeparationLevel() > 0) {
 			// Feature Selection
+			mFeatureSelection.setNumThreads(mNumThreads);
 			mFeatureSelection.checkForExceptions();
 
 			try {
+				// Cutpoints with the same column separate the same pairs
+				if (mCollapseColumns)
+					bData.narrowDown(bData.getColumns().distinctCutpoints(mCutpoints));
+
 				mFeatureSelection.fit(bData);
-				mCutpoints.narrowDown(mFeatureSelection.getSelectedAttArray());
+				bData.narrowDown(mFeatureSelection.getSelectedAttArray());
 			} catch (OutOfMemoryError e) {
 				ERROR = "\n" + LADFileManager.writeSection("Feature Selection: Out Of Memory Error");
 				ERROR += " It was impossible to build the set covering model due "
@@ -133,6 +154,7 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 
 		// Rule Building
 		this.mRuleGenerator.setMinimumPurity(mMinimumPurity);
+		this.mRuleGenerator.setNumThreads(mNumThreads);
 		this.mRuleGenerator.checkForExceptions();
 
 		try {
@@ -196,6 +218,46 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 		mCutpointTolerance = cutpointTolerance;
 	}
 
+	/** GET of maxCutpoints to Display */
+	public int getMaxCutpoints() {
+		return mMaxCutpoints;
+	}
+
+	/** SET of maxCutpoints to Display */
+	public void setMaxCutpoints(int maxCutpoints) {
+		mMaxCutpoints = maxCutpoints;
+	}
+
+	/** GET of sketchEpsilon to Display */
+	public double getSketchEpsilon() {
+		return mSketchEpsilon;
+	}
+
+	/** SET of sketchEpsilon to Display */
+	public void setSketchEpsilon(double sketchEpsilon) {
+		mSketchEpsilon = sketchEpsilon;
+	}
+
+	/** GET of collapseColumns to Display */
+	public boolean getCollapseColumns() {
+		return mCollapseColumns;
+	}
+
+	/** SET of collapseColumns to Display */
+	public void setCollapseColumns(boolean collapseColumns) {
+		mCollapseColumns = collapseColumns;
+	}
+
+	/** GET of mergeDuplicates to Display */
+	public boolean getMergeDuplicates() {
+		return mMergeDuplicates;
+	}
+
+	/** SET of mergeDuplicates to Display */
+	public void setMergeDuplicates(boolean mergeDuplicates) {
+		mMergeDuplicates = mergeDuplicates;
+	}
+
 	/** GET of minumumPurity to Display */
 	public double getMinimumPurity() {
 		return mMinimumPurity;
@@ -206,6 +268,16 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 		mMinimumPurity = purity;
 	}
 
+	/** GET of numThreads to Display */
+	public int getNumThreads() {
+		return mNumThreads;
+	}
+
+	/** SET of numThreads to Display */
+	public void setNumThreads(int numThreads) {
+		mNumThreads = numThreads;
+	}
+
 	/** SET of FeatureSelection Algorithm to Display */
 	public void setFeatureSelection(FeatureSelection featureSelection) {
 		this.mFeatureSelection = featureSelection;
@@ -244,6 +316,39 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 				+ "covered by the rule).";
 	}
 
+	/** MaxCutpoints Tip Text */
+	public String maxCutpointsTipText() {
+		return "Maximum number of cutpoints of each numeric attribute (0 for no limit). When an attribute "
+				+ "has more, the ones splitting its values with the highest information gain are kept.";
+	}
+
+	/** SketchEpsilon Tip Text */
+	public String sketchEpsilonTipText() {
+		return "When positive, the cutpoints are found in one pass over the data in bounded memory, keeping a "
+				+ "sketch of about 2 / epsilon bins per numeric attribute. A missed cutpoint lies in a range that held "
+				+ "at most epsilon * n values when it was formed (0 for the exact cutpoints). The maximum number "
+				+ "of cutpoints does not apply.";
+	}
+
+	/** CollapseColumns Tip Text */
+	public String collapseColumnsTipText() {
+		return "Whether cutpoints having the same binary column over the training data (equal or "
+				+ "complementary) are merged into the first of them before feature selection.";
+	}
+
+	/** MergeDuplicates Tip Text */
+	public String mergeDuplicatesTipText() {
+		return "Whether observations with the same class and the same binary values are merged into a single "
+				+ "one, weighing their number, before feature selection and rule generation. The results are "
+				+ "the same, except for the steps sampling observations.";
+	}
+
+	/** NumThreads Tip Text */
+	public String numThreadsTipText() {
+		return "Number of threads used for training (0 uses all available processors). The model "
+				+ "does not depend on the number of threads.";
+	}
+
 	/** RuleGenerator Tip Text */
 	public String ruleGeneratorTipText() {
 		return "The algorithm used for generating classsification rules.";
@@ -273,6 +378,24 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 			setCutpointTolerance(Double.parseDouble(cutPointsToleranceOption));
 		}
 
+		// Looking for Maximum Number of Cutpoints Option
+		String maxCutpointsOption = Utils.getOption('K', options);
+		if (maxCutpointsOption.length() != 0) {
+			setMaxCutpoints(Integer.parseInt(maxCutpointsOption));
+		}
+
+		// Looking for Sketch Epsilon Option
+		String sketchEpsilonOption = Utils.getOption('E', options);
+		if (sketchEpsilonOption.length() != 0) {
+			setSketchEpsilon(Double.parseDouble(sketchEpsilonOption));
+		}
+
+		// Looking for Collapse Columns Option
+		setCollapseColumns(Utils.getFlag('C', options));
+
+		// Looking for Merge Duplicates Option
+		setMergeDuplicates(Utils.getFlag('U', options));
+
 		// Looking for Feature Selection Level Option
 		String featureSelSeparationClassOption = Utils.getOption('F', options);
 		if (featureSelSeparationClassOption.length() != 0) {
@@ -292,6 +415,12 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 			setMinimumPurity(Double.parseDouble(minimumPurityOption));
 		}
 
+		// Looking for Number of Threads Option
+		String numThreadsOption = Utils.getOption('N', options);
+		if (numThreadsOption.length() != 0) {
+			setNumThreads(Integer.parseInt(numThreadsOption));
+		}
+
 		String ruleGeneratiorClassOption = Utils.getOption('G', options);
 		if (ruleGeneratiorClassOption.length() != 0) {
 			String[] tmpOptions = Utils.splitOptions(ruleGeneratiorClassOption);
@@ -315,6 +444,16 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 
 		options.add("-T");
 		options.add("" + getCutpointTolerance());
+		options.add("-K");
+		options.add("" + getMaxCutpoints());
+		options.add("-E");
+		options.add("" + getSketchEpsilon());
+
+		if (getCollapseColumns())
+			options.add("-C");
+
+		if (getMergeDuplicates())
+			options.add("-U");
 
 		options.add("-F");
 		options.add("" + mFeatureSelection.getClass().getSimpleName() + " "
@@ -322,6 +461,8 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 
 		options.add("-P");
 		options.add("" + getMinimumPurity());
+		options.add("-N");
+		options.add("" + getNumThreads());
 		options.add("-G");
 		options.add(
 				"" + mRuleGenerator.getClass().getSimpleName() + " " + Utils.joinOptions(mRuleGenerator.getOptions()));
@@ -343,6 +484,20 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 				+ "\tonly be generated between two values if they differ by\n"
 				+ "\tat least this value. (Default = 0.0)\n", "T", 1, "-T <tolerance>"));
 
+		newVector.addElement(new Option("\tMaximum number of cutpoints of each numeric attribute.\n"
+				+ "\tThe ones of highest information gain are kept.\n"
+				+ "\t(Default = 0, no limit)\n", "K", 1, "-K <max_cutpoints>"));
+
+		newVector.addElement(new Option("\tError of the streaming binarization. The cutpoints are\n"
+				+ "\tfound in one pass, in bounded memory, and -K does not\n"
+				+ "\tapply. (Default = 0, exact binarization)\n", "E", 1, "-E <epsilon>"));
+
+		newVector.addElement(new Option("\tMerges the cutpoints having the same binary column before\n"
+				+ "\tfeature selection.\n", "C", 0, "-C"));
+
+		newVector.addElement(new Option("\tMerges the observations having the same class and binary\n"
+				+ "\tvalues into one weighing their number.\n", "U", 0, "-U"));
+
 		newVector.addElement(new Option("\tFeature selection class.\n", "F", 1,
 				"-F <feature_separation_class_simple_name> + <options>"));
 
@@ -351,6 +506,10 @@ public class LAD extends AbstractClassifier implements TechnicalInformationHandl
 				+ "\tare covered by a rule (as a percentage of the total number\n"
 				+ "\tof points covered by the rule).\n", "P", 1, "-P <percentage>"));
 
+		newVector.addElement(new Option("\tNumber of threads used for training. The model does not\n"
+				+ "\tdepend on the number of threads. (Default = 1, 0 uses\n"
+				+ "\tall available processors)\n", "N", 1, "-N <num_threads>"));
+
 		newVector.addElement(new Option("\tThe algorithm used for generating classsification rules.\n", "G", 1,
 				"-G <rule_generator_class_name> + <options>"));
 
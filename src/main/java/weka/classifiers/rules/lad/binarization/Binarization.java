@@ -1,15 +1,12 @@
 package weka.classifiers.rules.lad.binarization;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Set;
-
-import org.apache.commons.compress.utils.Sets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
+import weka.classifiers.rules.lad.util.ThreadPool;
 import weka.core.Attribute;
-import weka.core.Instance;
 import weka.core.Instances;
+import weka.core.Utils;
 
 /**
  * Class Binarization
@@ -18,12 +15,18 @@ import weka.core.Instances;
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.1
+ * @version 1.2
  */
 public class Binarization {
 
 	/* Parameters */
 	private double mTolerance = 0.0;
+	private int mNumThreads = 1;
+	private int mMaxCutpoints = 0;
+
+	/* Auxiliary */
+	private final static int MIXED = -1;
+	private final static int NONE = -2;
 
 	/** Main Constructor */
 	public Binarization(double tolerance) {
@@ -31,16 +34,35 @@ public class Binarization {
 	}
 
 	/** Method for mapping the instances to cutpoints */
-	public CutpointSet fit(Instances data) throws Exception {
+	public CutpointSet fit(final Instances data) throws Exception {
 		//
 		CutpointSet cutpoints = new CutpointSet();
-		Attribute att = null;
 
-		// For each attribute, sort values and find transitions
-		for (int i = 0; i < data.numAttributes(); i++) {
+		for (int i = 0; i < data.numAttributes(); i++)
+			cutpoints.addAttribute(data.attribute(i));
+
+		// Class of every instance (missing classes get a slot of their own)
+		final int numClasses = data.numClasses();
+		final int[] classes = new int[data.numInstances()];
+
+		for (int j = 0; j < classes.length; j++)
+			classes[j] = data.instance(j).classIsMissing() ? numClasses : (int) data.instance(j).classValue();
+
+		// Transitions of every numeric attribute, one attribute per task
+		final double[][] transitions = new double[data.numAttributes()][];
+		ForkJoinPool pool = ThreadPool.create(mNumThreads);
+
+		try {
+			ThreadPool.forEach(pool, transitions.length, i -> {
+				if (i != data.classIndex() && data.attribute(i).isNumeric())
+					transitions[i] = transitions(data, i, classes, numClasses + 1);
+			});
+		} finally {
+			pool.shutdown();
+		}
 
-			att = data.attribute(i);
-			cutpoints.addAttribute(att);
+		for (int i = 0; i < data.numAttributes(); i++) {
+			Attribute att = data.attribute(i);
 
 			// CLASS ATTRIBUTE
 			if (att == data.classAttribute())
@@ -48,55 +70,181 @@ public class Binarization {
 
 			// NOMINAL ATTRIBUTES
 			if (att.isNominal()) {
-				cutpoints.addCutpoint(i, att.numValues());
+				for (int v = 0; v < att.numValues(); v++)
+					cutpoints.addCutpoint(i, v);
 				continue;
 			}
 
 			// NUMERIC ATTRIBUTE
-			// Mapping
-			HashMap<Double, Set<Double>> map = new HashMap<Double, Set<Double>>();
+			for (double cutpoint : transitions[i])
+				cutpoints.addCutpoint(i, cutpoint);
+		}
 
-			for (int j = 0; j < data.numInstances(); j++) {
-				Instance instance = data.instance(j);
+		cutpoints.sort();
+		return cutpoints;
+	}
 
-				// Safety
-				if (instance.isMissing(i))
-					continue;
+	/**
+	 * Cutpoints of a numeric attribute. The values of every class are sorted apart
+	 * and merged, so each distinct value comes out with the classes having it. A
+	 * cutpoint lies between two consecutive values farther apart than the
+	 * tolerance, unless both values belong to the same single class. With a
+	 * budget, just the cutpoints of highest information gain are kept.
+	 */
+	private double[] transitions(Instances data, int att, int[] classes, int numSlots) {
+		// Values of every class
+		int[] sizes = new int[numSlots];
 
-				double v = instance.value(i);
+		for (int j = 0; j < classes.length; j++)
+			if (!Utils.isMissingValue(data.instance(j).value(att)))
+				sizes[classes[j]]++;
 
-				if (!map.containsKey(v))
-					map.put(v, Sets.newHashSet());
+		double[][] values = new double[numSlots][];
+		for (int c = 0; c < numSlots; c++)
+			values[c] = new double[sizes[c]];
 
-				map.get(v).add(instance.classValue());
-			}
+		Arrays.fill(sizes, 0);
 
-			// Cut point transitions
-			ArrayList<Double> keys = new ArrayList<Double>(map.keySet());
-			Collections.sort(keys);
+		for (int j = 0; j < classes.length; j++) {
+			double v = data.instance(j).value(att);
 
-			// Search
-			double v = keys.get(0);
-			for (int k = 1; k < keys.size(); k++) {
-				double u = keys.get(k);
+			if (!Utils.isMissingValue(v))
+				values[classes[j]][sizes[classes[j]]++] = v;
+		}
+
+		for (int c = 0; c < numSlots; c++)
+			Arrays.sort(values[c]);
+
+		// Merge: distinct values in increasing order (-0.0 comes before 0.0)
+		int[] heads = new int[numSlots];
+		double[] cutpoints = new double[classes.length];
+		double[] gains = mMaxCutpoints > 0 ? new double[classes.length] : null;
+		int numCutpoints = 0;
+
+		double v = 0;
+		int vClass = NONE;
+
+		while (true) {
+			double u = 0;
+			boolean found = false;
+
+			for (int c = 0; c < numSlots; c++)
+				if (heads[c] < values[c].length && (!found || Double.compare(values[c][heads[c]], u) < 0)) {
+					u = values[c][heads[c]];
+					found = true;
+				}
+
+			if (!found)
+				break;
+
+			// Classes having the value (or MIXED)
+			int uClass = NONE;
+
+			for (int c = 0; c < numSlots; c++)
+				if (heads[c] < values[c].length && Double.compare(values[c][heads[c]], u) == 0)
+					uClass = (uClass == NONE) ? c : MIXED;
+
+			if (vClass != NONE) {
 				double delta = u - v;
 
 				if (delta > this.mTolerance)
-					if (map.get(v).size() > 1 || map.get(v).size() > 1 || !map.get(v).equals(map.get(u))) {
-						cutpoints.addCutpoint(i, (v + (delta / 2.0)));
-					}
+					if (vClass == MIXED || uClass == MIXED || vClass != uClass) {
+						// The heads still count the values below the cutpoint
+						if (gains != null)
+							gains[numCutpoints] = gain(heads, values);
 
-				v = u;
+						cutpoints[numCutpoints++] = v + (delta / 2.0);
+					}
 			}
+
+			for (int c = 0; c < numSlots; c++)
+				while (heads[c] < values[c].length && Double.compare(values[c][heads[c]], u) == 0)
+					heads[c]++;
+
+			v = u;
+			vClass = uClass;
 		}
 
-		cutpoints.sort();
-		return cutpoints;
+		if (gains != null && numCutpoints > mMaxCutpoints)
+			return best(cutpoints, gains, numCutpoints, mMaxCutpoints);
+
+		return Arrays.copyOf(cutpoints, numCutpoints);
+	}
+
+	/**
+	 * Information gain of splitting the values of an attribute, given the number
+	 * of values of every class below the split
+	 */
+	private static double gain(int[] below, double[][] values) {
+		int numBelow = 0, numAbove = 0;
+
+		for (int c = 0; c < below.length; c++) {
+			numBelow += below[c];
+			numAbove += values[c].length - below[c];
+		}
+
+		double entropy = 0, entropyBelow = 0, entropyAbove = 0;
+
+		for (int c = 0; c < below.length; c++) {
+			entropy -= plogp(values[c].length, numBelow + numAbove);
+			entropyBelow -= plogp(below[c], numBelow);
+			entropyAbove -= plogp(values[c].length - below[c], numAbove);
+		}
+
+		return entropy - (numBelow * entropyBelow + numAbove * entropyAbove) / (numBelow + numAbove);
+	}
+
+	/** p * log2(p) for a proportion count / total (0 for an empty count) */
+	private static double plogp(int count, int total) {
+		if (count == 0)
+			return 0;
+
+		double p = count / (double) total;
+		return p * Math.log(p) / Math.log(2);
+	}
+
+	/**
+	 * The cutpoints of highest gain, in increasing order (ties are broken in
+	 * favour of the lower cutpoints)
+	 */
+	private static double[] best(double[] cutpoints, double[] gains, int numCutpoints, int budget) {
+		double[] sorted = Arrays.copyOf(gains, numCutpoints);
+		Arrays.sort(sorted);
+
+		double threshold = sorted[numCutpoints - budget];
+		int numAbove = 0;
+
+		for (int i = 0; i < numCutpoints; i++)
+			if (gains[i] > threshold)
+				numAbove++;
+
+		double[] kept = new double[budget];
+		int numTies = budget - numAbove, numKept = 0;
+
+		for (int i = 0; i < numCutpoints; i++)
+			if (gains[i] > threshold || (gains[i] == threshold && numTies-- > 0))
+				kept[numKept++] = cutpoints[i];
+
+		return kept;
+	}
+
+	/** SET of the number of threads (0 for all available processors) */
+	public void setNumThreads(int numThreads) {
+		mNumThreads = numThreads;
+	}
+
+	/** SET of the maximum number of cutpoints of each attribute (0 for no limit) */
+	public void setMaxCutpoints(int maxCutpoints) {
+		mMaxCutpoints = maxCutpoints;
 	}
 
 	/** Checks if is there any setting out of boundary of mistakenly setted */
 	public void checkForExceptions() throws Exception {
 		if (mTolerance < 0)
 			throw new Exception("Binarization: Cutpoint tolerance must be greater than or equal to 0.");
+		else if (mNumThreads < 0)
+			throw new Exception("Binarization: Number of threads must be greater than or equal to 0.");
+		else if (mMaxCutpoints < 0)
+			throw new Exception("Binarization: Maximum number of cutpoints must be greater than or equal to 0.");
 	}
 }
\ No newline at end of file
@@ -2,152 +2,268 @@ package weka.classifiers.rules.lad.binarization;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Vector;
+import java.util.Arrays;
 
 import weka.core.Attribute;
 
 /**
  * Class Cutpoints
  * 
+ * The cutpoints are kept in parallel arrays of attributes and values. Once
+ * sorted, the cutpoints of every attribute are contiguous and increasing, and
+ * an offset table gives the range of each attribute (see {@link #binarize}).
+ * A nominal attribute has a cutpoint per value, its value index.
+ * 
  * @author Vaux Gomes
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.1
+ * @version 1.3
  */
 public class CutpointSet implements Serializable {
 
 	/** SERIAL ID */
-	private static final long serialVersionUID = 3660537629035514316L;
+	private static final long serialVersionUID = 4873009471290462385L;
 
 	/* Variables */
-	private Vector<Cutpoint> mCutpoints;
+	private int[] mAtts;
+	private double[] mValues;
+	private int mSize;
 	private ArrayList<Attribute> mAttributes;
 
+	/* Auxiliary */
+	private transient int[] mOffsets;
+	private transient boolean mIndexed;
+
 	/** Main Constructor */
 	public CutpointSet() {
 		this.mAttributes = new ArrayList<Attribute>();
-		this.mCutpoints = new Vector<Cutpoint>();
+		this.mAtts = new int[16];
+		this.mValues = new double[16];
+		this.mSize = 0;
 	}
 
 	/** Adds a new attribute */
 	public void addAttribute(Attribute att) {
 		this.mAttributes.add(att);
+		this.mIndexed = false;
 	}
 
 	/** Adds a new cutpoint */
 	public void addCutpoint(int att, double value) {
-		this.mCutpoints.add(new Cutpoint(att, value));
+		if (mSize == mAtts.length) {
+			mAtts = Arrays.copyOf(mAtts, 2 * mSize);
+			mValues = Arrays.copyOf(mValues, 2 * mSize);
+		}
+
+		this.mAtts[mSize] = att;
+		this.mValues[mSize++] = value;
+		invalidate();
 	}
 
 	/** Narrows down our cutpoint list keeping just the listed indices. */
 	public void narrowDown(ArrayList<Integer> indices) {
-		Vector<Cutpoint> newList = new Vector<Cutpoint>();
+		int[] atts = new int[indices.size()];
+		double[] values = new double[indices.size()];
 
-		for (Integer index : indices)
-			newList.add(mCutpoints.get(index));
+		for (int i = 0; i < atts.length; i++) {
+			atts[i] = mAtts[indices.get(i)];
+			values[i] = mValues[indices.get(i)];
+		}
 
-		newList.trimToSize();
-		this.mCutpoints = newList;
+		this.mAtts = atts;
+		this.mValues = values;
+		this.mSize = atts.length;
+		invalidate();
 	}
 
 	/** GET of a mapped attribute index */
 	public int attAt(int index) {
-		return this.mCutpoints.get(index).mAtt;
+		return this.mAtts[index];
 	}
 
 	/** GET of a mapped attribute value */
 	public double valueAt(int index) {
-		return this.mCutpoints.get(index).mValue;
+		return this.mValues[index];
 	}
 
-	/** GET of a mapped attribute value */
-	public String valueAt(int index, int valIndex) {
-		return mAttributes.get(mCutpoints.get(index).mAtt).value(valIndex);
+	/** GET of the name of a mapped nominal value */
+	public String valueNameAt(int index) {
+		return mAttributes.get(mAtts[index]).value((int) mValues[index]);
 	}
 
 	/** GET of a mapped attribute name */
 	public String nameAt(int index) {
-		return this.mCutpoints.get(index).mName;
+		return mAttributes.size() > 0 ? mAttributes.get(mAtts[index]).name() : "Att";
 	}
 
 	/** GET isNumeric of a mapped attribute index */
 	public boolean isNumeric(int index) {
-		return mAttributes.get(mCutpoints.get(index).mAtt).isNumeric();
+		return mAttributes.get(mAtts[index]).isNumeric();
 	}
 
 	/** GET of the number of cutpoints */
 	public int numCutpoints() {
-		return this.mCutpoints.size();
+		return this.mSize;
 	}
 
-	/** SORT of cutpoint */
-	public void sort() {
-		Collections.sort(this.mCutpoints);
+	/*
+	 * ----------------------------------------------------------------------
+	 * PER ATTRIBUTE ACCESS
+	 * ----------------------------------------------------------------------
+	 */
+
+	/**
+	 * Checks whether the cutpoints of every attribute are contiguous and
+	 * increasing, as they are after {@link #sort()}. The methods below need it.
+	 */
+	public boolean isIndexed() {
+		if (!mIndexed)
+			index();
+
+		return mOffsets != null;
 	}
 
-	@Override
-	public String toString() {
-		String s = String.format("Cutpoints: %d\n", mCutpoints.size());
+	/** GET of the number of attributes */
+	public int numAttributes() {
+		return mAttributes.size();
+	}
 
-		for (int i = 0; i < this.mCutpoints.size(); i++)
-			s += this.mCutpoints.get(i).toString() + "\n";
+	/** GET of the index of the first cutpoint of an attribute */
+	public int firstCutpoint(int att) {
+		isIndexed();
+		return mOffsets[att];
+	}
 
-		return s;
+	/** GET of the number of cutpoints of an attribute */
+	public int numCutpoints(int att) {
+		isIndexed();
+		return mOffsets[att + 1] - mOffsets[att];
 	}
 
 	/**
-	 * Class Cutpoint
-	 * 
-	 * @author Vaux Gomes
-	 * @author Tiberius Bonates
-	 * 
-	 * @since Mar 27, 2014
-	 * @version 1.0
+	 * Binarizes a value of a numeric attribute: the number of cutpoints of the
+	 * attribute lower than or equal to the value, found by a binary search. Those
+	 * are the first ones of the attribute, so they are the cutpoints from
+	 * {@link #firstCutpoint(int)} whose binary attribute is true.
 	 */
-	private class Cutpoint implements Serializable, Comparable<Cutpoint> {
+	public int binarize(int att, double value) {
+		isIndexed();
 
-		/** SERIAL ID */
-		private static final long serialVersionUID = 4895475778132616358L;
+		int low = mOffsets[att], high = mOffsets[att + 1];
 
-		/* Variables */
-		private final int mAtt;
-		private final double mValue;
-		private final String mName;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
 
-		/** Main Constructor */
-		public Cutpoint(int att, double value) {
-			this.mAtt = att;
-			this.mValue = value;
-
-			if (mAttributes.size() > 0)
-				this.mName = mAttributes.get(mAtt).name();
+			if (mValues[middle] <= value)
+				low = middle + 1;
 			else
-				this.mName = "Att";
+				high = middle;
+		}
+
+		return low - mOffsets[att];
+	}
+
+	/** Builds the offset table, if the cutpoints are grouped and sorted */
+	private void index() {
+		mIndexed = true;
+		mOffsets = null;
+
+		int numAttributes = mAttributes.size();
+		for (int i = 0; i < mSize; i++)
+			numAttributes = Math.max(numAttributes, mAtts[i] + 1);
+
+		int[] offsets = new int[numAttributes + 1];
+
+		for (int i = 0; i < mSize; i++) {
+			if (i > 0 && (mAtts[i] < mAtts[i - 1] || (mAtts[i] == mAtts[i - 1] && mValues[i] < mValues[i - 1])))
+				return;
+
+			offsets[mAtts[i] + 1]++;
 		}
 
-		@Override
-		public int compareTo(Cutpoint arg0) {
-			if (arg0 != null) {
-				if (arg0.mAtt < this.mAtt)
-					return 1;
-				else if (arg0.mAtt > this.mAtt)
-					return -1;
-				else {
-					if (arg0.mValue < this.mValue)
-						return 1;
-					else if (arg0.mValue > this.mValue)
-						return -1;
-				}
+		for (int a = 0; a < numAttributes; a++)
+			offsets[a + 1] += offsets[a];
+
+		mOffsets = offsets;
+	}
+
+	/** Drops every table derived from the cutpoints */
+	private void invalidate() {
+		this.mOffsets = null;
+		this.mIndexed = false;
+	}
+
+	/*
+	 * ----------------------------------------------------------------------
+	 * SORTING
+	 * ----------------------------------------------------------------------
+	 */
+
+	/** SORT of cutpoint (stable, by attribute and then by value) */
+	public void sort() {
+		invalidate();
+
+		if (isIndexed())
+			return;
+
+		// Merge sort of the indices of the cutpoints
+		int[] order = new int[mSize];
+		int[] buffer = new int[mSize];
+
+		for (int i = 0; i < mSize; i++)
+			order[i] = i;
+
+		for (int width = 1; width < mSize; width *= 2) {
+			for (int from = 0; from < mSize; from += 2 * width) {
+				int middle = Math.min(from + width, mSize), to = Math.min(from + 2 * width, mSize);
+				int i = from, j = middle, k = from;
+
+				while (i < middle && j < to)
+					buffer[k++] = compare(order[j], order[i]) < 0 ? order[j++] : order[i++];
+				while (i < middle)
+					buffer[k++] = order[i++];
+				while (j < to)
+					buffer[k++] = order[j++];
 			}
 
-			return 0;
+			int[] swap = order;
+			order = buffer;
+			buffer = swap;
 		}
 
-		@Override
-		public String toString() {
-			return String.format(" [ %s : %f ]", mName, mValue);
+		int[] atts = new int[mSize];
+		double[] values = new double[mSize];
+
+		for (int i = 0; i < mSize; i++) {
+			atts[i] = mAtts[order[i]];
+			values[i] = mValues[order[i]];
 		}
+
+		this.mAtts = atts;
+		this.mValues = values;
+		invalidate();
+	}
+
+	/** Order of two cutpoints: by attribute and then by value */
+	private int compare(int a, int b) {
+		if (mAtts[a] != mAtts[b])
+			return mAtts[a] < mAtts[b] ? -1 : 1;
+		else if (mValues[a] < mValues[b])
+			return -1;
+		else if (mValues[a] > mValues[b])
+			return 1;
+
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder(String.format("Cutpoints: %d\n", mSize));
+
+		for (int i = 0; i < this.mSize; i++)
+			s.append(String.format(" [ %s : %f ]", nameAt(i), mValues[i])).append("\n");
+
+		return s.toString();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,360 @@
+package weka.classifiers.rules.lad.binarization;
+
+import java.util.Arrays;
+
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.Loader;
+
+/**
+ * Class StreamingBinarization
+ * 
+ * Cutpoints of a data set read one instance at a time, in bounded memory. Every
+ * numeric attribute keeps a sketch: a sorted list of bins, each one holding a
+ * range of values, their number and their class (or MIXED). Incoming values are
+ * buffered and merged into the bins, a value falling inside the range of a bin
+ * being counted in it. Once the bins exceed their budget, neighbour bins holding
+ * together at most epsilon * n values (n values seen so far) are joined, those
+ * of the same single class first. Cutpoints come out of the bins as in
+ * {@link Binarization}, so they are exact while no join was needed.
+ * 
+ * A cutpoint is missed only inside the range of a joined bin, which held at
+ * most epsilon * n values when it was formed. Later values falling inside that
+ * range cannot be told apart, so the bound holds at the end for streams that
+ * do not revisit joined ranges (e.g. sorted by value); a class arriving after
+ * another one over the same range may lose most of its cutpoints.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.2
+ */
+public class StreamingBinarization {
+
+	/* Parameters */
+	private double mTolerance = 0.0;
+	private double mEpsilon = 0.005;
+
+	/* Variables */
+	private Instances mHeader;
+	private Sketch[] mSketches;
+
+	/* Auxiliary */
+	private final static int MIXED = -1;
+	private final static int NONE = -2;
+
+	/** Main Constructor */
+	public StreamingBinarization(double tolerance, double epsilon) {
+		mTolerance = tolerance;
+		mEpsilon = epsilon;
+	}
+
+	/**
+	 * Reads every instance of a loader (e.g. an ArffLoader over a file) and
+	 * returns its cutpoints. The class is the one set in the structure of the
+	 * loader, or the last attribute if there is none.
+	 */
+	public CutpointSet fit(Loader loader) throws Exception {
+		Instances header = loader.getStructure();
+
+		if (header.classIndex() < 0)
+			header.setClassIndex(header.numAttributes() - 1);
+
+		init(header);
+
+		Instance instance;
+		while ((instance = loader.getNextInstance(header)) != null)
+			add(instance);
+
+		return getCutpoints();
+	}
+
+	/** Reads every instance of a data set already in memory */
+	public CutpointSet fit(Instances data) {
+		init(new Instances(data, 0));
+
+		for (Instance instance : data)
+			add(instance);
+
+		return getCutpoints();
+	}
+
+	/** Starts a new stream of instances described by a header */
+	public void init(Instances header) {
+		mHeader = header;
+		mSketches = new Sketch[header.numAttributes()];
+
+		for (int i = 0; i < header.numAttributes(); i++)
+			if (i != header.classIndex() && header.attribute(i).isNumeric())
+				mSketches[i] = new Sketch(mEpsilon, header.numClasses() + 1);
+	}
+
+	/** Adds an instance of the stream */
+	public void add(Instance instance) {
+		// Missing classes get a slot of their own
+		int label = instance.classIsMissing() ? mHeader.numClasses() : (int) instance.classValue();
+
+		for (int i = 0; i < mSketches.length; i++)
+			if (mSketches[i] != null && !instance.isMissing(i))
+				mSketches[i].add(instance.value(i), label);
+	}
+
+	/** GET of the cutpoints of the instances added so far */
+	public CutpointSet getCutpoints() {
+		CutpointSet cutpoints = new CutpointSet();
+
+		for (int i = 0; i < mHeader.numAttributes(); i++)
+			cutpoints.addAttribute(mHeader.attribute(i));
+
+		for (int i = 0; i < mHeader.numAttributes(); i++) {
+			Attribute att = mHeader.attribute(i);
+
+			// CLASS ATTRIBUTE
+			if (i == mHeader.classIndex())
+				continue;
+
+			// NOMINAL ATTRIBUTES
+			if (att.isNominal()) {
+				for (int v = 0; v < att.numValues(); v++)
+					cutpoints.addCutpoint(i, v);
+				continue;
+			}
+
+			// NUMERIC ATTRIBUTE
+			Sketch sketch = mSketches[i];
+			sketch.flush();
+
+			for (int b = 1; b < sketch.mSize; b++) {
+				double delta = sketch.mMin[b] - sketch.mMax[b - 1];
+
+				if (delta > this.mTolerance)
+					if (sketch.mClass[b - 1] == MIXED || sketch.mClass[b] == MIXED
+							|| sketch.mClass[b - 1] != sketch.mClass[b])
+						cutpoints.addCutpoint(i, (sketch.mMax[b - 1] + (delta / 2.0)));
+			}
+		}
+
+		cutpoints.sort();
+		return cutpoints;
+	}
+
+	/** Checks if is there any setting out of boundary of mistakenly setted */
+	public void checkForExceptions() throws Exception {
+		if (mTolerance < 0)
+			throw new Exception("Binarization: Cutpoint tolerance must be greater than or equal to 0.");
+		else if (mEpsilon <= 0 || mEpsilon >= 1)
+			throw new Exception("Binarization: Epsilon must be in the interval (0, 1).");
+	}
+
+	/**
+	 * Class Sketch. Bins of the values of a numeric attribute, sorted by value,
+	 * and a buffer of the values not merged into them yet.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private static class Sketch {
+
+		/* Bins */
+		private double[] mMin;
+		private double[] mMax;
+		private long[] mCount;
+		private int[] mClass;
+		private int mSize = 0;
+		private long mTotal = 0;
+
+		/* Bins being built by a flush (swapped with the ones above) */
+		private double[] mNewMin;
+		private double[] mNewMax;
+		private long[] mNewCount;
+		private int[] mNewClass;
+		private int mNewSize;
+
+		/* Buffer */
+		private final double[] mValues;
+		private final int[] mLabels;
+		private int mBuffered = 0;
+
+		/* Auxiliary */
+		private final double mEpsilon;
+		private final int mCapacity;
+		private final double[] mSorted;
+		private final int[] mOffsets;
+		private final int[] mHeads;
+
+		/** Main Constructor */
+		public Sketch(double epsilon, int numSlots) {
+			int capacity = (int) Math.ceil(2 / epsilon) + 2;
+
+			mEpsilon = epsilon;
+			mCapacity = capacity;
+
+			mMin = new double[2 * capacity];
+			mMax = new double[2 * capacity];
+			mCount = new long[2 * capacity];
+			mClass = new int[2 * capacity];
+
+			mNewMin = new double[2 * capacity];
+			mNewMax = new double[2 * capacity];
+			mNewCount = new long[2 * capacity];
+			mNewClass = new int[2 * capacity];
+
+			mValues = new double[capacity];
+			mLabels = new int[capacity];
+			mSorted = new double[capacity];
+			mOffsets = new int[numSlots + 1];
+			mHeads = new int[numSlots];
+		}
+
+		/** Adds a value of a given class */
+		public void add(double value, int label) {
+			mValues[mBuffered] = value;
+			mLabels[mBuffered] = label;
+
+			if (++mBuffered == mValues.length)
+				flush();
+		}
+
+		/** Merges the buffer into the bins, joining bins if over the budget */
+		public void flush() {
+			if (mBuffered == 0)
+				return;
+
+			sortBuffer();
+			mNewSize = 0;
+
+			// Distinct buffered values in increasing order (-0.0 comes before 0.0)
+			int b = 0;
+
+			while (true) {
+				double u = 0;
+				boolean found = false;
+
+				for (int c = 0; c < mHeads.length; c++)
+					if (mHeads[c] < mOffsets[c + 1] && (!found || Double.compare(mSorted[mHeads[c]], u) < 0)) {
+						u = mSorted[mHeads[c]];
+						found = true;
+					}
+
+				if (!found)
+					break;
+
+				int uClass = NONE;
+				long uCount = 0;
+
+				for (int c = 0; c < mHeads.length; c++)
+					while (mHeads[c] < mOffsets[c + 1] && Double.compare(mSorted[mHeads[c]], u) == 0) {
+						uClass = (uClass == NONE || uClass == c) ? c : MIXED;
+						uCount++;
+						mHeads[c]++;
+					}
+
+				// Bins before the value, then the bin holding it (or a new one)
+				while (b < mSize && Double.compare(mMax[b], u) < 0)
+					append(mMin[b], mMax[b], mCount[b], mClass[b++]);
+
+				if (b < mSize && Double.compare(mMin[b], u) <= 0) {
+					mCount[b] += uCount;
+					mClass[b] = mClass[b] == uClass ? uClass : MIXED;
+				} else {
+					append(u, u, uCount, uClass);
+				}
+			}
+
+			while (b < mSize)
+				append(mMin[b], mMax[b], mCount[b], mClass[b++]);
+
+			mTotal += mBuffered;
+			mBuffered = 0;
+
+			swap();
+
+			// Lossless joins first, then any joins within the budget
+			if (mSize > mCapacity)
+				compress(true);
+
+			if (mSize > mCapacity)
+				compress(false);
+		}
+
+		/** Groups the buffered values by class, each group sorted */
+		private void sortBuffer() {
+			Arrays.fill(mOffsets, 0);
+
+			for (int j = 0; j < mBuffered; j++)
+				mOffsets[mLabels[j] + 1]++;
+
+			for (int c = 0; c < mHeads.length; c++) {
+				mOffsets[c + 1] += mOffsets[c];
+				mHeads[c] = mOffsets[c];
+			}
+
+			for (int j = 0; j < mBuffered; j++)
+				mSorted[mHeads[mLabels[j]]++] = mValues[j];
+
+			for (int c = 0; c < mHeads.length; c++) {
+				mHeads[c] = mOffsets[c];
+				Arrays.sort(mSorted, mOffsets[c], mOffsets[c + 1]);
+			}
+		}
+
+		/**
+		 * Joins neighbour bins holding together at most epsilon * n values (only
+		 * the ones of the same single class, if asked). Once any bins may be
+		 * joined, two bins left side by side hold more than that, so at most 2 /
+		 * epsilon + 1 bins remain.
+		 */
+		private void compress(boolean sameClass) {
+			long threshold = (long) Math.floor(mEpsilon * mTotal);
+			mNewSize = 0;
+
+			append(mMin[0], mMax[0], mCount[0], mClass[0]);
+
+			for (int b = 1; b < mSize; b++) {
+				int last = mNewSize - 1;
+				boolean same = mClass[b] != MIXED && mClass[b] == mNewClass[last];
+
+				if ((same || !sameClass) && mNewCount[last] + mCount[b] <= threshold) {
+					mNewMax[last] = mMax[b];
+					mNewCount[last] += mCount[b];
+					mNewClass[last] = same ? mClass[b] : MIXED;
+				} else {
+					append(mMin[b], mMax[b], mCount[b], mClass[b]);
+				}
+			}
+
+			swap();
+		}
+
+		/** Adds a bin to the ones being built */
+		private void append(double min, double max, long count, int label) {
+			mNewMin[mNewSize] = min;
+			mNewMax[mNewSize] = max;
+			mNewCount[mNewSize] = count;
+			mNewClass[mNewSize++] = label;
+		}
+
+		/** Makes the bins just built the current ones */
+		private void swap() {
+			double[] min = mMin, max = mMax;
+			long[] count = mCount;
+			int[] label = mClass;
+
+			mMin = mNewMin;
+			mMax = mNewMax;
+			mCount = mNewCount;
+			mClass = mNewClass;
+			mSize = mNewSize;
+
+			mNewMin = min;
+			mNewMax = max;
+			mNewCount = count;
+			mNewClass = label;
+		}
+	}
+}
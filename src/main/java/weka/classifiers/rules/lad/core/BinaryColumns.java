@@ -0,0 +1,316 @@
+package weka.classifiers.rules.lad.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import weka.classifiers.rules.lad.binarization.CutpointSet;
+
+/**
+ * Class BinaryColumns
+ * 
+ * Column-major representation of a binary dataset. It keeps one bitset per
+ * cutpoint (its positive literal), one per cutpoint having missing values and
+ * one per class label, all of them over the instance axis. Rule coverage then
+ * becomes an AND of literal bitsets and purity a popcount against the class
+ * masks. When the instances stand for several identical ones
+ * (see {@link BinaryInstance#weight()}), the counts add up their weights.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.2
+ */
+public class BinaryColumns implements Serializable {
+
+	/** SERIAL ID */
+	private static final long serialVersionUID = 6105862791305432207L;
+
+	/* Variables */
+	private int mNumInstances;
+	private int mNumWords;
+	private int[] mWeights;
+
+	/* Bitsets */
+	private long[][] mLiterals;
+	private long[][] mMissing;
+	private long[][] mLabels;
+
+	/** Main Constructor */
+	public BinaryColumns(List<BinaryInstance> instances, CutpointSet cutpoints, int numLabels) {
+		int numCutpoints = cutpoints.numCutpoints();
+
+		mNumInstances = instances.size();
+		mNumWords = words(mNumInstances);
+
+		mLiterals = new long[numCutpoints][mNumWords];
+		mMissing = new long[numCutpoints][];
+		mLabels = new long[numLabels][mNumWords];
+
+		for (int j = 0; j < mNumInstances; j++) {
+			BinaryInstance instance = instances.get(j);
+			int w = j >>> 6;
+			long bit = 1L << j;
+
+			mLabels[(int) instance.instanceClass()][w] |= bit;
+
+			if (instance.weight() != 1) {
+				if (mWeights == null) {
+					mWeights = new int[mNumInstances];
+					Arrays.fill(mWeights, 1);
+				}
+
+				mWeights[j] = instance.weight();
+			}
+
+			for (int i = 0; i < numCutpoints; i++) {
+				if (instance.isMissingAttribute(i)) {
+					if (mMissing[i] == null)
+						mMissing[i] = new long[mNumWords];
+
+					mMissing[i][w] |= bit;
+				} else if (instance.getBinAt(i)) {
+					mLiterals[i][w] |= bit;
+				}
+			}
+		}
+	}
+
+	/** GET of number of instances */
+	public int numInstances() {
+		return mNumInstances;
+	}
+
+	/** GET of the length of the bitsets */
+	public int numWords() {
+		return mNumWords;
+	}
+
+	/** Creates a bitset holding every instance */
+	public long[] full() {
+		long[] mask = new long[mNumWords];
+
+		for (int j = 0; j < mNumInstances >>> 6; j++)
+			mask[j] = -1L;
+
+		if ((mNumInstances & 63) != 0)
+			mask[mNumWords - 1] = (1L << mNumInstances) - 1;
+
+		return mask;
+	}
+
+	/**
+	 * Keeps in the mask just the instances covered by a literal. An instance with
+	 * a missing value is covered only if its class differs from the rule's class.
+	 */
+	public void and(long[] mask, Literal literal, double label) {
+		apply(mask, literal, label, true);
+	}
+
+	/** Writes into a buffer the bitset of instances covered by a literal */
+	public void cover(long[] buffer, Literal literal, double label) {
+		apply(buffer, literal, label, false);
+	}
+
+	/** Coverage of a literal either ANDed or copied into a bitset */
+	private void apply(long[] mask, Literal literal, double label, boolean and) {
+		int att = literal.getAtt();
+		long[] missing = mMissing[att];
+		long[] labels = mLabels[(int) label];
+		long[] column = mLiterals[att];
+		boolean negated = !literal.getSignal();
+
+		for (int k = 0; k < mask.length; k++) {
+			long word = column[k];
+
+			if (missing != null) {
+				word = negated ? ~(word | missing[k]) : word;
+				word |= missing[k] & ~labels[k];
+			} else if (negated) {
+				word = ~word;
+			}
+
+			mask[k] = and ? mask[k] & word : word;
+		}
+	}
+
+	/** GET of the bitset of a class label (must not be modified) */
+	public long[] getLabel(double label) {
+		return mLabels[(int) label];
+	}
+
+	/** Stats: number of instances in a mask */
+	public int count(long[] mask) {
+		int count = 0;
+
+		for (int k = 0; k < mask.length; k++)
+			count += weigh(mask[k], k);
+
+		return count;
+	}
+
+	/** Stats: number of instances of a class in a mask */
+	public int count(long[] mask, double label) {
+		long[] labels = mLabels[(int) label];
+		int count = 0;
+
+		for (int k = 0; k < mask.length; k++)
+			count += weigh(mask[k] & labels[k], k);
+
+		return count;
+	}
+
+	/** Stats: number of instances in the k-th word of a bitset */
+	public int weigh(long word, int k) {
+		if (mWeights == null)
+			return Long.bitCount(word);
+
+		int weight = 0;
+
+		while (word != 0) {
+			weight += mWeights[(k << 6) + Long.numberOfTrailingZeros(word)];
+			word &= word - 1;
+		}
+
+		return weight;
+	}
+
+	/** GET of the weight of an instance */
+	public int weight(int index) {
+		return mWeights == null ? 1 : mWeights[index];
+	}
+
+	/**
+	 * Indices of the cutpoints whose columns are distinct, in increasing order.
+	 * Two cutpoints are the same column when they are missing on the same
+	 * instances and their bits are equal or complementary on the others: they
+	 * then separate the same pairs of instances, and their literals cover the
+	 * same instances. Just the first cutpoint of each column is kept.
+	 */
+	public ArrayList<Integer> distinctCutpoints(CutpointSet cutpoints) {
+		ArrayList<Integer> distinct = new ArrayList<Integer>();
+		HashMap<Column, Integer> seen = new HashMap<Column, Integer>();
+
+		long[] full = full();
+
+		for (int i = 0; i < cutpoints.numCutpoints(); i++) {
+			long[] missing = mMissing[i] == null ? new long[mNumWords] : mMissing[i];
+			long[] bits = mLiterals[i].clone();
+
+			// Orientation: the first instance having a value is out of the column
+			int first = -1;
+			for (int k = 0; k < mNumWords && first < 0; k++) {
+				long present = full[k] & ~missing[k];
+
+				if (present != 0)
+					first = (k << 6) + Long.numberOfTrailingZeros(present);
+			}
+
+			if (first >= 0 && get(bits, first))
+				for (int k = 0; k < mNumWords; k++)
+					bits[k] = ~bits[k] & full[k] & ~missing[k];
+
+			if (seen.putIfAbsent(new Column(bits, missing), i) == null)
+				distinct.add(i);
+		}
+
+		return distinct;
+	}
+
+	/**
+	 * Class Column. Bits and missing mask of a cutpoint, as a key.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private static class Column {
+
+		/* Variables */
+		private final long[] mBits;
+		private final long[] mMissing;
+		private final int mHash;
+
+		/** Main Constructor */
+		public Column(long[] bits, long[] missing) {
+			mBits = bits;
+			mMissing = missing;
+			mHash = 31 * Arrays.hashCode(bits) + Arrays.hashCode(missing);
+		}
+
+		@Override
+		public int hashCode() {
+			return mHash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Column))
+				return false;
+
+			Column other = (Column) obj;
+			return mHash == other.mHash && Arrays.equals(mBits, other.mBits) && Arrays.equals(mMissing, other.mMissing);
+		}
+	}
+
+	/*
+	 * ----------------------------------------------------------------------
+	 * STATIC METHODS
+	 * ----------------------------------------------------------------------
+	 */
+
+	/** Number of words needed by a bitset of a given size */
+	public static int words(int size) {
+		return (size + 63) >>> 6;
+	}
+
+	/** Number of set bits of a bitset */
+	public static int cardinality(long[] mask) {
+		int cardinality = 0;
+
+		for (int k = 0; k < mask.length; k++)
+			cardinality += Long.bitCount(mask[k]);
+
+		return cardinality;
+	}
+
+	/** Checks a bit */
+	public static boolean get(long[] mask, int index) {
+		return (mask[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/** Sets a bit */
+	public static void set(long[] mask, int index) {
+		mask[index >>> 6] |= 1L << index;
+	}
+
+	/** Clears a bit */
+	public static void clear(long[] mask, int index) {
+		mask[index >>> 6] &= ~(1L << index);
+	}
+
+	/** Index of the first set bit at or after a given index, or -1 */
+	public static int nextSetBit(long[] mask, int from) {
+		int k = from >>> 6;
+
+		if (k >= mask.length)
+			return -1;
+
+		long word = mask[k] & (-1L << from);
+
+		while (true) {
+			if (word != 0)
+				return (k << 6) + Long.numberOfTrailingZeros(word);
+
+			if (++k == mask.length)
+				return -1;
+
+			word = mask[k];
+		}
+	}
+}
@@ -3,6 +3,7 @@ package weka.classifiers.rules.lad.core;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import weka.classifiers.rules.lad.binarization.CutpointSet;
 import weka.core.Attribute;
@@ -12,11 +13,21 @@ import weka.core.Instances;
 /**
  * Binary Instance class.
  * 
+ * Every data set derived from the main one (copies and coverages) is a view
+ * over the same list of instances: its members are flagged in a bitset and its
+ * class counts are kept in an array, so adding or removing an instance is
+ * O(1).
+ * 
+ * Optionally, instances binarized into the same values and having the same
+ * class are merged into a single one weighing their number. The class counts
+ * and the stats are then weighted, while {@link #numInstances()} counts the
+ * distinct instances.
+ * 
  * @author Vaux Gomes
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.1
+ * @version 1.2
  */
 public class BinaryData implements Serializable {
 
@@ -24,40 +35,112 @@ public class BinaryData implements Serializable {
 	private static final long serialVersionUID = 2488234257854645289L;
 
 	/* Variables */
-	private ArrayList<BinaryInstance> mInstances;
+	private ArrayList<BinaryInstance> mAll;
 	private ArrayList<Attribute> mAttributes;
-	private HashMap<Double, Integer> mCounts;
 	private CutpointSet mCutpoints;
+	private BinaryColumns mColumns;
+	private boolean mDeduplicate;
+
+	/* View */
+	private long[] mMask;
+	private int[] mCounts;
+	private int mSize;
+	private int mWeight;
+
+	/* Auxiliary */
+	private ArrayList<BinaryInstance> mInstances;
 
 	/** Main Constructor */
 	public BinaryData(Instances data, CutpointSet cutpoints) {
-		this(data.numClasses());
+		this(data, cutpoints, false);
+	}
+
+	/** Main Constructor, merging duplicate instances if asked */
+	public BinaryData(Instances data, CutpointSet cutpoints, boolean deduplicate) {
+		mAll = new ArrayList<BinaryInstance>(data.numInstances());
+		mAttributes = new ArrayList<Attribute>();
+		mCounts = new int[data.numClasses()];
+
+		for (Instance instance : data) {
+			BinaryInstance bInstance = new BinaryInstance(instance, cutpoints);
 
-		for (Instance instance : data)
-			add(new BinaryInstance(instance, cutpoints));
+			mAll.add(bInstance);
+			mCounts[(int) bInstance.instanceClass()]++;
+		}
 
 		for (int i = 0; i < data.numAttributes(); i++)
 			mAttributes.add(data.attribute(i));
 
 		mCutpoints = cutpoints;
-	}
-
-	/** Basic Constructor */
-	public BinaryData(int numLabels) {
-		mInstances = new ArrayList<BinaryInstance>();
-		mCounts = new HashMap<Double, Integer>();
-		mAttributes = new ArrayList<Attribute>();
-
-		for (int i = 0; i < numLabels; i++)
-			mCounts.put((double) i, 0);
+		mDeduplicate = deduplicate;
+		mWeight = mAll.size();
+		build();
 	}
 
 	/** Smart Constructor */
 	public BinaryData(BinaryData data) {
-		mInstances = new ArrayList<BinaryInstance>(data.mInstances);
-		mAttributes = new ArrayList<Attribute>(data.mAttributes);
-		mCounts = new HashMap<Double, Integer>(data.mCounts);
+		this(data, data.mMask.clone(), data.mCounts.clone(), data.mSize, data.mWeight);
+	}
+
+	/** View Constructor */
+	private BinaryData(BinaryData data, long[] mask, int[] counts, int size, int weight) {
+		mAll = data.mAll;
+		mAttributes = data.mAttributes;
 		mCutpoints = data.mCutpoints;
+		mColumns = data.mColumns;
+		mDeduplicate = data.mDeduplicate;
+
+		mMask = mask;
+		mCounts = counts;
+		mSize = size;
+		mWeight = weight;
+	}
+
+	/** Creates the view of the instances flagged in a mask */
+	private BinaryData view(long[] mask) {
+		int[] counts = new int[mCounts.length];
+		int weight = 0;
+
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = mColumns.count(mask, i);
+			weight += counts[i];
+		}
+
+		return new BinaryData(this, mask, counts, BinaryColumns.cardinality(mask), weight);
+	}
+
+	/**
+	 * Indexes every instance (merging the duplicate ones, if asked) and builds
+	 * the columns. The data set then holds every instance.
+	 */
+	private void build() {
+		if (mDeduplicate)
+			mAll = deduplicate(mAll);
+
+		for (int j = 0; j < mAll.size(); j++)
+			mAll.get(j).setIndex(j);
+
+		mColumns = new BinaryColumns(mAll, mCutpoints, mCounts.length);
+		mMask = mColumns.full();
+		mSize = mAll.size();
+		mInstances = mAll;
+	}
+
+	/** Merges the duplicate instances into the first one, adding up weights */
+	private static ArrayList<BinaryInstance> deduplicate(ArrayList<BinaryInstance> instances) {
+		ArrayList<BinaryInstance> distinct = new ArrayList<BinaryInstance>();
+		HashMap<Key, BinaryInstance> seen = new HashMap<Key, BinaryInstance>();
+
+		for (BinaryInstance instance : instances) {
+			BinaryInstance first = seen.putIfAbsent(new Key(instance), instance);
+
+			if (first == null)
+				distinct.add(instance);
+			else
+				first.setWeight(first.weight() + instance.weight());
+		}
+
+		return distinct;
 	}
 
 	/** GET of cutpoints */
@@ -65,42 +148,147 @@ public class BinaryData implements Serializable {
 		return mCutpoints;
 	}
 
+	/** GET of the column-major representation */
+	public BinaryColumns getColumns() {
+		return mColumns;
+	}
+
+	/** GET of the bitset of members (must not be modified) */
+	public long[] getMask() {
+		return mMask;
+	}
+
+	/**
+	 * Narrows down the cutpoint set keeping just the listed indices and re-packs
+	 * every instance accordingly. Instances made identical are merged, if asked.
+	 */
+	public void narrowDown(ArrayList<Integer> indices) {
+		mCutpoints.narrowDown(indices);
+
+		for (BinaryInstance instance : mAll)
+			instance.pack();
+
+		build();
+	}
+
 	/** Adds an instance */
 	public void add(BinaryInstance instance) {
-		if (this.mInstances.add(instance))
-			mCounts.put(instance.instanceClass(), mCounts.get(instance.instanceClass()) + 1);
+		if (BinaryColumns.get(mMask, instance.index()))
+			return;
+
+		BinaryColumns.set(mMask, instance.index());
+		mCounts[(int) instance.instanceClass()] += instance.weight();
+		mWeight += instance.weight();
+		mSize++;
+		mInstances = null;
 	}
 
 	/** Adds all instances from a BinaryData */
 	public void add(BinaryData data) {
-		for (BinaryInstance instance : data.mInstances)
-			add(instance);
+		long[] added = new long[mMask.length];
+
+		for (int k = 0; k < added.length; k++) {
+			added[k] = data.mMask[k] & ~mMask[k];
+			mMask[k] |= added[k];
+		}
+
+		update(added, 1);
 	}
 
 	/** Removes an instance */
 	public void remove(BinaryInstance instance) {
-		if (mInstances.remove(instance))
-			mCounts.put(instance.instanceClass(), mCounts.get(instance.instanceClass()) - 1);
+		if (!BinaryColumns.get(mMask, instance.index()))
+			return;
+
+		BinaryColumns.clear(mMask, instance.index());
+		mCounts[(int) instance.instanceClass()] -= instance.weight();
+		mWeight -= instance.weight();
+		mSize--;
+		mInstances = null;
 	}
 
+	/** Removes all instances from a BinaryData */
 	public void remove(BinaryData data) {
-		for (BinaryInstance instance : data.mInstances)
-			remove(instance);
+		long[] removed = new long[mMask.length];
+
+		for (int k = 0; k < removed.length; k++) {
+			removed[k] = data.mMask[k] & mMask[k];
+			mMask[k] &= ~removed[k];
+		}
+
+		update(removed, -1);
+	}
+
+	/** Updates the counts after adding (+1) or removing (-1) a mask */
+	private void update(long[] mask, int signal) {
+		for (int i = 0; i < mCounts.length; i++) {
+			int count = mColumns.count(mask, i);
+
+			mCounts[i] += signal * count;
+			mWeight += signal * count;
+		}
+
+		mSize += signal * BinaryColumns.cardinality(mask);
+		mInstances = null;
+	}
+
+	/**
+	 * Makes the split from a Literal
+	 * 
+	 * Covered either if:
+	 * <ol>
+	 * <li>Attribute is missing and instance's class is different from the rule's
+	 * class</li>
+	 * <li>Literal value is the same of the instance</li>
+	 * </ol>
+	 */
+	public BinaryData cover(Literal literal, double label) {
+		long[] mask = mMask.clone();
+		mColumns.and(mask, literal, label);
+
+		return view(mask);
+	}
+
+	/** Makes the split using a list of literals (see {@link #cover(Literal, double)}) */
+	public BinaryData cover(List<Literal> literals, double label) {
+		long[] mask = mMask.clone();
+
+		for (Literal literal : literals)
+			mColumns.and(mask, literal, label);
+
+		return view(mask);
+	}
+
+	/** Checks if an instance belongs to this data set */
+	public boolean contains(BinaryInstance instance) {
+		return BinaryColumns.get(mMask, instance.index());
 	}
 
 	/** GET of a specific instance. */
 	public BinaryInstance getInstance(int index) {
-		return mInstances.get(index);
+		return getInstances().get(index);
 	}
 
 	/** GET of a instances. */
 	public ArrayList<BinaryInstance> getInstances() {
+		if (mInstances == null) {
+			mInstances = new ArrayList<BinaryInstance>(mSize);
+
+			for (int i = BinaryColumns.nextSetBit(mMask, 0); i >= 0; i = BinaryColumns.nextSetBit(mMask, i + 1))
+				mInstances.add(mAll.get(i));
+		}
+
 		return mInstances;
 	}
 
-	/** GET of number of instances */
+	/** GET of number of (distinct) instances */
 	public int numInstances() {
-		return mInstances.size();
+		return mSize;
+	}
+
+	/** GET of number of instances, counting each one as many times as it weighs */
+	public int sumOfWeights() {
+		return mWeight;
 	}
 
 	/** GET of number of attributes */
@@ -115,7 +303,7 @@ public class BinaryData implements Serializable {
 
 	/** GET of number of class labels */
 	public int numClassLabels() {
-		return mCounts.size();
+		return mCounts.length;
 	}
 
 	/** GET of an attribute */
@@ -125,7 +313,7 @@ public class BinaryData implements Serializable {
 
 	/** Stats: Purity */
 	public double getPurity(double label) {
-		return mInstances.size() == 0 ? 0 : (mCounts.get(label) / (double) mInstances.size());
+		return mWeight == 0 ? 0 : (mCounts[(int) label] / (double) mWeight);
 	}
 
 	/** Stats: Merged purity */
@@ -133,14 +321,13 @@ public class BinaryData implements Serializable {
 		if (data == null)
 			return getPurity(label);
 
-		return (mInstances.size() + data.mInstances.size()) == 0 ? 0
-				: (mCounts.get(label) + data.mCounts.get(label))
-						/ (double) (mInstances.size() + data.mInstances.size());
+		return (mWeight + data.mWeight) == 0 ? 0
+				: (mCounts[(int) label] + data.mCounts[(int) label]) / (double) (mWeight + data.mWeight);
 	}
 
 	/** Stats: Coverage */
 	public int getCoverage(double label) {
-		return mCounts.get(label);
+		return mCounts[(int) label];
 	}
 
 	public double getMergedCoverage(BinaryData data, double label) {
@@ -149,11 +336,47 @@ public class BinaryData implements Serializable {
 
 	@Override
 	public String toString() {
-		String s = String.format("Covered: %d\n", mInstances.size());
-		for (int i = 0; i < mCounts.size(); i++) {
+		String s = String.format("Covered: %d\n", mWeight);
+		for (int i = 0; i < mCounts.length; i++) {
 			s += String.format("[%d] (%f, %d)\n", i, getPurity(i), getCoverage(i));
 		}
 
 		return s;
 	}
+
+	/**
+	 * Class Key. A binary instance as a key, equal to its duplicates.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private static class Key {
+
+		/* Variables */
+		private final BinaryInstance mInstance;
+		private final int mHash;
+
+		/** Main Constructor */
+		public Key(BinaryInstance instance) {
+			mInstance = instance;
+			mHash = instance.duplicateHash();
+		}
+
+		@Override
+		public int hashCode() {
+			return mHash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+
+			Key other = (Key) obj;
+			return mHash == other.mHash && mInstance.isDuplicate(other.mInstance);
+		}
+	}
 }
\ No newline at end of file
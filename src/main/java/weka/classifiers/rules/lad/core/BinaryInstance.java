@@ -1,6 +1,7 @@
 package weka.classifiers.rules.lad.core;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import weka.classifiers.rules.lad.binarization.CutpointSet;
 import weka.core.Instance;
@@ -8,11 +9,17 @@ import weka.core.Instance;
 /**
  * Class BinaryInstance
  * 
+ * The binary values and the missing values of every cutpoint are packed into
+ * bitsets once (see {@link #pack()}), so the coverage checks never go back to
+ * the wrapped {@link Instance}. The binary value of a nominal cutpoint tells
+ * whether the attribute has that value. An instance
+ * may stand for several identical ones (see {@link #weight()}).
+ * 
  * @author Vaux Gomes
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.1
+ * @version 1.4
  */
 public class BinaryInstance implements Serializable {
 
@@ -23,55 +30,152 @@ public class BinaryInstance implements Serializable {
 	private Instance mInstance;
 	private CutpointSet sCutpoints;
 
+	/* Packed representation */
+	private int mIndex;
+	private int mLabel;
+	private int mWeight = 1;
+	private int mNumCutpoints;
+	private long[] mBits;
+	private long[] mMissing;
+
 	/** Main Constructor */
 	public BinaryInstance(Instance instance, CutpointSet cutpoints) {
 		this.mInstance = instance;
 		this.sCutpoints = cutpoints;
+		this.mLabel = (int) instance.classValue();
+
+		pack();
 	}
 
-	/** GET of binary attribute */
-	public boolean getBinAt(int index) {
-		return sCutpoints.valueAt(index) <= mInstance.value(sCutpoints.attAt(index));
+	/**
+	 * Packs the cutpoint bits and the missing mask of this instance. It must be
+	 * called again whenever the cutpoint set changes (e.g.
+	 * {@link CutpointSet#narrowDown}).
+	 */
+	public void pack() {
+		mNumCutpoints = sCutpoints.numCutpoints();
+
+		mBits = new long[(mNumCutpoints + 63) >>> 6];
+		mMissing = new long[mBits.length];
+
+		// Unsorted cutpoints are packed one by one
+		if (!sCutpoints.isIndexed()) {
+			for (int i = 0; i < mNumCutpoints; i++)
+				pack(i, i + 1, sCutpoints.attAt(i));
+
+			return;
+		}
+
+		// One binary search per numeric attribute, one pass per nominal one
+		for (int att = 0; att < sCutpoints.numAttributes(); att++) {
+			int from = sCutpoints.firstCutpoint(att);
+			int to = from + sCutpoints.numCutpoints(att);
+
+			if (from < to)
+				pack(from, to, att);
+		}
+	}
+
+	/** Packs the cutpoints in [from, to), all of them on the same attribute */
+	private void pack(int from, int to, int att) {
+		if (mInstance.isMissing(att)) {
+			for (int i = from; i < to; i++)
+				mMissing[i >>> 6] |= 1L << i;
+		} else if (sCutpoints.isNumeric(from)) {
+			// The cutpoints lower than or equal to the value come first
+			int last = to == from + 1 ? (sCutpoints.valueAt(from) <= mInstance.value(att) ? to : from)
+					: from + sCutpoints.binarize(att, mInstance.value(att));
+
+			for (int i = from; i < last; i++)
+				mBits[i >>> 6] |= 1L << i;
+		} else {
+			for (int i = from; i < to; i++)
+				if (sCutpoints.valueAt(i) == mInstance.value(att))
+					mBits[i >>> 6] |= 1L << i;
+		}
 	}
 
 	/** GET of binary attribute */
-	public double getValueAt(int index) {
-		return mInstance.value(sCutpoints.attAt(index));
+	public boolean getBinAt(int index) {
+		return (mBits[index >>> 6] & (1L << index)) != 0;
 	}
 
 	/** Compares two attributes */
 	public boolean compareAtt(int index, BinaryInstance bInst) {
-		try {
-			if (isMissingAttribute(index) || bInst.isMissingAttribute(index))
-				return false;
-
-			if (isNumeric(index))
-				return getBinAt(index) == bInst.getBinAt(index);
-			else
-				return getValueAt(index) == bInst.getValueAt(index);
-		} catch (Exception e) {
-			return true;
-		}
+		if (isMissingAttribute(index) || bInst.isMissingAttribute(index))
+			return false;
+
+		return ((mBits[index >>> 6] ^ bInst.mBits[index >>> 6]) & (1L << index)) == 0;
 	}
 
-	/** Checks if a specific attribute is numeric */
-	public boolean isNumeric(int index) {
-		return mInstance.attribute((sCutpoints.attAt(index))).isNumeric();
+	/**
+	 * Writes into words the bitset of the cutpoints on which this instance and
+	 * another one differ, a missing value differing from anything. Those are the
+	 * cutpoints for which {@link #compareAtt} is false.
+	 */
+	public void difference(BinaryInstance bInst, long[] words) {
+		for (int k = 0; k < mBits.length; k++)
+			words[k] = (mBits[k] ^ bInst.mBits[k]) | mMissing[k] | bInst.mMissing[k];
+	}
+
+	/**
+	 * Hamming distance to another instance: number of cutpoints on which they
+	 * differ, a missing value differing from anything
+	 */
+	public int distance(BinaryInstance bInst) {
+		int distance = 0;
+
+		for (int k = 0; k < mBits.length; k++) {
+			long missing = mMissing[k] | bInst.mMissing[k];
+			distance += Long.bitCount((mBits[k] ^ bInst.mBits[k]) | missing);
+		}
+
+		return distance;
 	}
 
 	/** Checks if a specific attribute is missing */
 	public boolean isMissingAttribute(int index) {
-		return mInstance.isMissing(sCutpoints.attAt(index));
+		return (mMissing[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/** GET of the index of this instance in its data set */
+	public int index() {
+		return mIndex;
+	}
+
+	/** SET of the index of this instance in its data set */
+	void setIndex(int index) {
+		this.mIndex = index;
+	}
+
+	/** GET of the number of identical instances this one stands for */
+	public int weight() {
+		return mWeight;
+	}
+
+	/** SET of the number of identical instances this one stands for */
+	void setWeight(int weight) {
+		this.mWeight = weight;
+	}
+
+	/** Checks if two instances have the same class and packed values */
+	boolean isDuplicate(BinaryInstance bInst) {
+		return mLabel == bInst.mLabel && Arrays.equals(mBits, bInst.mBits) && Arrays.equals(mMissing, bInst.mMissing);
+	}
+
+	/** Hash of the class and packed values (see {@link #isDuplicate}) */
+	int duplicateHash() {
+		return (31 * mLabel + Arrays.hashCode(mBits)) * 31 + Arrays.hashCode(mMissing);
 	}
 
 	/** GET of the binary instance class */
 	public double instanceClass() {
-		return mInstance.classValue();
+		return mLabel;
 	}
 
 	/** GET of number of attributes */
 	public int numAttributes() {
-		return sCutpoints.numCutpoints();
+		return mNumCutpoints;
 	}
 
 	/** GET of the value of a cutpoint */
@@ -83,12 +187,8 @@ public class BinaryInstance implements Serializable {
 	public String toString() {
 		String output = "";
 
-		for (int i = 0; i < numAttributes(); i++) {
-			if (isNumeric(i))
-				output += getBinAt(i) + " ";
-			else
-				output += (int) getValueAt(i) + " ";
-		}
+		for (int i = 0; i < numAttributes(); i++)
+			output += getBinAt(i) + " ";
 
 		return output;
 	}
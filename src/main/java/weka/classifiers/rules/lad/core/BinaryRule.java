@@ -2,10 +2,15 @@ package weka.classifiers.rules.lad.core;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Class BinaryRule
  * 
+ * Besides the literals in the order they were chosen, a rule keeps them sorted
+ * by attribute and value. This canonical form is what equals and hashCode use,
+ * so the same pattern reached in any order is the same rule.
+ * 
  * @author Vaux Gomes
  * @author Tiberius Bonates
  * 
@@ -22,11 +27,19 @@ public class BinaryRule implements Serializable {
 	private double mPurity;
 	private ArrayList<Literal> mLiterals;
 
+	/* Canonical form */
+	private Literal[] mCanonical;
+	private int mHash;
+
 	/** Main Constructor */
 	public BinaryRule(ArrayList<Literal> literals, double label, double purity) {
 		this.mLabel = (int) label;
 		this.mPurity = purity;
 		this.mLiterals = new ArrayList<Literal>(literals);
+
+		this.mCanonical = literals.toArray(new Literal[literals.size()]);
+		Arrays.sort(this.mCanonical);
+		this.mHash = 31 * Arrays.hashCode(mCanonical) + mLabel;
 	}
 
 	/** GET of rule's class */
@@ -46,16 +59,16 @@ public class BinaryRule implements Serializable {
 	
 	@Override
 	public boolean equals(Object obj) {
-		BinaryRule rule = (BinaryRule) obj;
-		
-		if (mLiterals.size() != rule.mLiterals.size())
+		if (!(obj instanceof BinaryRule))
 			return false;
-		
-		for (Literal l : mLiterals)
-			if (!rule.mLiterals.contains(l))
-				return false;
 
-		return true;
+		BinaryRule rule = (BinaryRule) obj;
+		return mHash == rule.mHash && mLabel == rule.mLabel && Arrays.equals(mCanonical, rule.mCanonical);
+	}
+
+	@Override
+	public int hashCode() {
+		return mHash;
 	}
 
 	@Override
@@ -5,73 +5,73 @@ import java.io.Serializable;
 /**
  * Class Literal
  * 
+ * A literal is a binary feature (a cutpoint, see {@link #getAtt()}) or its
+ * negation, encoded in a single int: the feature index followed by the sign
+ * bit. Numeric cutpoints read "value > cutpoint" and nominal ones "value ==
+ * cutpoint", so a negative nominal literal reads "value != cutpoint".
+ * 
  * @author Vaux Gomes
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.1
+ * @version 1.2
  */
-public class Literal implements Serializable {
+public class Literal implements Serializable, Comparable<Literal> {
 
 	/** SERIAL ID */
-	private static final long serialVersionUID = -3388849798203471234L;
+	private static final long serialVersionUID = 3201542287617011695L;
 
 	/* Variables */
-	private final int mAtt;
-	private final double mValue;
-	private final boolean mNumericInfo;
-
-	/* Auxiliary Variables */
-	private final static int TRUE = 1;
+	private final int mCode;
 
-	/** Numeric Constructor */
-	public Literal(int att, boolean sign) {
-		this.mAtt = att;
-		this.mValue = sign ? TRUE : 0;
-		this.mNumericInfo = true;
+	/** Main Constructor */
+	public Literal(int code) {
+		this.mCode = code;
 	}
 
-	/** Nominal constructor */
-	public Literal(int att, double value) {
-		this.mAtt = att;
-		this.mValue = value;
-		this.mNumericInfo = false;
+	/** Feature Constructor */
+	public Literal(int att, boolean sign) {
+		this((att << 1) | (sign ? 1 : 0));
 	}
 
 	/** Compares values between this Literal and the related Instance attribute */
 	public boolean isIn(BinaryInstance instance) {
-		return (isNumeric() && instance.getBinAt(mAtt) == getSignal())
-				|| (!isNumeric() && instance.getValueAt(mAtt) == getValue());
-	}
-
-	/** GET of attribute index */
-	public int getAtt() {
-		return mAtt;
+		return instance.getBinAt(getAtt()) == getSignal();
 	}
 
-	/** GET of value */
-	public double getValue() {
-		return mValue;
+	/** GET of code */
+	public int getCode() {
+		return mCode;
 	}
 
-	/** GET of numeric info */
-	public boolean isNumeric() {
-		return mNumericInfo;
+	/** GET of attribute (feature) index */
+	public int getAtt() {
+		return mCode >>> 1;
 	}
 
-	/** GET of sign (if it is numeric) */
+	/** GET of sign */
 	public boolean getSignal() {
-		return mValue == TRUE;
+		return (mCode & 1) != 0;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		Literal l = (Literal) obj;
-		return mAtt == l.mAtt && mValue == l.mValue;
+		return mCode == l.mCode;
+	}
+
+	@Override
+	public int hashCode() {
+		return mCode;
+	}
+
+	@Override
+	public int compareTo(Literal l) {
+		return Integer.compare(mCode, l.mCode);
 	}
 
 	@Override
 	public String toString() {
-		return "(" + (isNumeric() ? (getSignal() ? "+" : "-") + mAtt : "Att" + mAtt + " = " + (int) getValue()) + ")";
+		return "(" + (getSignal() ? "+" : "-") + getAtt() + ")";
 	}
 }
\ No newline at end of file
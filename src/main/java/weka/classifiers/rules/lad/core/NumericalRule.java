@@ -14,7 +14,7 @@ import weka.core.Instance;
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.0
+ * @version 1.1
  */
 public class NumericalRule implements Serializable {
 
@@ -45,12 +45,13 @@ public class NumericalRule implements Serializable {
 			int index = literal.getAtt();
 
 			// Numeric condition
-			if (literal.isNumeric()) {
+			if (cutpoints.isNumeric(index)) {
 				conditions.add(new Condition(cutpoints.attAt(index), cutpoints.nameAt(index), cutpoints.valueAt(index),
 						literal.getSignal()));
-			} else // Nominal condition
-				conditions.add(new Condition(cutpoints.attAt(index), cutpoints.nameAt(index), literal.getValue(),
-						cutpoints.valueAt(index, (int) literal.getValue())));
+			} else // Nominal condition (equal to or different from a value)
+				conditions.add(new Condition(cutpoints.attAt(index), cutpoints.nameAt(index), cutpoints.valueAt(index),
+						cutpoints.valueNameAt(index),
+						literal.getSignal() ? Condition.EQUALS_TO : Condition.NOT_EQUALS_TO));
 		}
 
 		// Sorting
@@ -61,7 +62,13 @@ public class NumericalRule implements Serializable {
 		for (int i = 1; i < conditions.size(); i++) {
 			Condition c = conditions.get(i);
 
-			if (aux.mAtt != c.mAtt || (aux.mAtt == c.mAtt && aux.mRelation != c.mRelation)) {
+			// An equality makes the other values of the attribute excluded anyway
+			if (aux.mAtt == c.mAtt && aux.mRelation == Condition.EQUALS_TO && c.mRelation == Condition.NOT_EQUALS_TO)
+				continue;
+
+			// Every excluded value keeps its own condition
+			if (aux.mAtt != c.mAtt || (aux.mAtt == c.mAtt && aux.mRelation != c.mRelation)
+					|| c.mRelation == Condition.NOT_EQUALS_TO) {
 				mConditions.add(aux);
 				aux = c;
 			} else if (aux.mRelation == Condition.LESS_EQUAL_THAN) {
@@ -132,6 +139,10 @@ public class NumericalRule implements Serializable {
 			case Condition.EQUALS_TO:
 				if (inst.value(att) != nCond.mValue)
 					return false;
+				break;
+			case Condition.NOT_EQUALS_TO:
+				if (inst.value(att) == nCond.mValue)
+					return false;
 			}
 		}
 
@@ -152,6 +163,16 @@ public class NumericalRule implements Serializable {
 		return true;
 	}
 
+	@Override
+	public int hashCode() {
+		// Values are compared with a tolerance, so they are left out of the hash
+		int hash = mLabel;
+		for (Condition nCond : this.mConditions)
+			hash += 31 * nCond.mAtt + nCond.mRelation;
+
+		return hash;
+	}
+
 	@Override
 	public String toString() {
 		String s = "{" + this.mWeight + "}";
@@ -168,7 +189,7 @@ public class NumericalRule implements Serializable {
 	 * @author Tiberius Bonates
 	 * 
 	 * @since Mar 27, 2014
-	 * @version 1.1
+	 * @version 1.2
 	 */
 	private class Condition implements Serializable, Comparable<Condition> {
 
@@ -179,6 +200,7 @@ public class NumericalRule implements Serializable {
 		protected final static int BIGGER_THAN = 0;
 		protected final static int LESS_EQUAL_THAN = 1;
 		protected final static int EQUALS_TO = 2;
+		protected final static int NOT_EQUALS_TO = 3;
 
 		/* Variables */
 		private final int mAtt;
@@ -206,15 +228,10 @@ public class NumericalRule implements Serializable {
 			this(att, attName, value, null, (relation ? BIGGER_THAN : LESS_EQUAL_THAN));
 		}
 
-		/** Designated Constructor */
-		public Condition(int att, String attName, double value, String valueName) {
-			this(att, attName, value, valueName, EQUALS_TO);
-		}
-
 		@Override
 		public String toString() {
 			if (mValueName != null)
-				return String.format("[%s = %s]", mAttName, mValueName);
+				return String.format("[%s %s %s]", mAttName, (mRelation == EQUALS_TO ? "=" : "!="), mValueName);
 
 			return String.format("[%s %s %f]", mAttName, (mRelation == BIGGER_THAN ? ">" : "<="), mValue);
 
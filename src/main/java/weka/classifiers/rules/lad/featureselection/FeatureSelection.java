@@ -14,7 +14,7 @@ import weka.classifiers.rules.lad.featureselection.setcovering.SetCovering;
  * @author Vaux Gomes
  * @author Tiberius Bonates
  * 
- * @version 1.0
+ * @version 1.1
  * @date 2/14/13
  */
 public abstract class FeatureSelection implements Serializable {
@@ -24,6 +24,7 @@ public abstract class FeatureSelection implements Serializable {
 
 	/* Parameters */
 	protected int mSeparationLevel = 1;
+	protected int mNumThreads = 1;
 
 	/* Variables */
 	protected ArrayList<Integer> mSelectedAttArray;
@@ -47,6 +48,8 @@ public abstract class FeatureSelection implements Serializable {
 	public void checkForExceptions() throws Exception {
 		if (mSeparationLevel < 0)
 			throw new Exception("Feature Selection: Separation Level " + "must be greater than or equal to 0.");
+		else if (mNumThreads < 0)
+			throw new Exception("Feature Selection: Number of threads must be greater than or equal to 0.");
 	}
 
 	/** GET Separation Level */
@@ -59,6 +62,11 @@ public abstract class FeatureSelection implements Serializable {
 		mSeparationLevel = level;
 	}
 
+	/** SET of the number of threads (0 means all available processors) */
+	public void setNumThreads(int numThreads) {
+		mNumThreads = numThreads;
+	}
+
 	/** GET selected attributes */
 	public ArrayList<Integer> getSelectedAttArray() {
 		Collections.sort(mSelectedAttArray);
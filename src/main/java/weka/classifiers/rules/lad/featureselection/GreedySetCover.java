@@ -6,8 +6,6 @@ import java.util.Enumeration;
 import java.util.Vector;
 
 import weka.classifiers.rules.lad.core.BinaryData;
-import weka.classifiers.rules.lad.core.BinaryInstance;
-import weka.classifiers.rules.lad.featureselection.setcovering.SetCovering;
 import weka.core.Option;
 import weka.core.Utils;
 
@@ -18,7 +16,7 @@ import weka.core.Utils;
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.0
+ * @version 1.3
  */
 public class GreedySetCover extends FeatureSelection {
 
@@ -42,36 +40,16 @@ public class GreedySetCover extends FeatureSelection {
 			return;
 		}
 
-		int numSets = data.numCutpoints();
-
-		// Auxiliary variable
-		ArrayList<Integer> array = new ArrayList<Integer>(numSets);
+		// Every pair of instances of different classes
+		int[] instances = new int[data.numInstances()];
+		for (int i = 0; i < instances.length; i++)
+			instances[i] = i;
 
 		// Set Covering instance (Chvátal's Heuristic)
-		sc = new SetCovering(numSets);
-
-		// Building Set Covering problem
-		for (int i = 0; i < data.numInstances(); i++) {
-			BinaryInstance A = data.getInstance(i);
-
-			for (int j = i + 1; j < data.numInstances(); j++) {
-				BinaryInstance B = data.getInstance(j);
-
-				// It must be different classes labels
-				if (A.instanceClass() == B.instanceClass())
-					continue;
+		SetCoveringBuilder builder = new SetCoveringBuilder(data);
+		builder.setNumThreads(mNumThreads);
 
-				// Reseting array
-				array.clear();
-
-				// Populating array of cutpoints indices
-				for (int c = 0; c < numSets; c++)
-					if (!A.compareAtt(c, B))
-						array.add(c);
-
-				sc.addElement(array);
-			}
-		}
+		sc = builder.build(instances, null);
 
 		// Solving Set Covering problem
 		sc.solve(mSeparationLevel);
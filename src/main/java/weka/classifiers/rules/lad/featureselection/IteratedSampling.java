@@ -9,7 +9,6 @@ import java.util.Random;
 import java.util.Vector;
 
 import weka.classifiers.rules.lad.core.BinaryData;
-import weka.classifiers.rules.lad.core.BinaryInstance;
 import weka.classifiers.rules.lad.featureselection.setcovering.SetCovering;
 import weka.core.Option;
 import weka.core.Utils;
@@ -21,7 +20,7 @@ import weka.core.Utils;
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.0
+ * @version 1.3
  */
 public class IteratedSampling extends FeatureSelection {
 
@@ -67,42 +66,27 @@ public class IteratedSampling extends FeatureSelection {
 			instances.add(i);
 		}
 
-		//
-		ArrayList<Integer> array = new ArrayList<Integer>(numAttributes);
-
 		// Set Covering instance
 		SetCovering sc = null;
+		SetCoveringBuilder builder = new SetCoveringBuilder(data);
+		builder.setNumThreads(mNumThreads);
 
 		// Rounds
 		for (int r = 0; r < mNumRounds; r++) {
 			Collections.shuffle(attributes, mRnd);
 			Collections.shuffle(instances, mRnd);
 
-			// Instantiating SC
-			sc = new SetCovering(numAttributes);
-
-			// Building a Sampled Set Covering problem
-			for (Integer i : instances.subList(0, numInstances)) {
-				BinaryInstance A = data.getInstance(i);
-
-				for (Integer j : instances.subList(1, numInstances)) {
-					BinaryInstance B = data.getInstance(j);
-
-					// It must be different classes labels
-					if (A.instanceClass() == B.instanceClass())
-						continue;
+			// Sets are the positions of the sampled cutpoints
+			int[] cutpoints = new int[numAttributes];
+			for (int s = 0; s < numAttributes; s++)
+				cutpoints[s] = attributes.get(s);
 
-					// Reseting array
-					array.clear();
+			int[] rows = new int[numInstances];
+			for (int i = 0; i < numInstances; i++)
+				rows[i] = instances.get(i);
 
-					// Populating array of cutpoints indices
-					for (Integer c : attributes.subList(0, numAttributes))
-						if (!A.compareAtt(c, B))
-							array.add(c);
-
-					sc.addElement(array);
-				}
-			}
+			// Building a Sampled Set Covering problem: each pair across classes once
+			sc = builder.build(rows, cutpoints);
 
 			// Solving Set Covering problem
 			sc.solve(mSeparationLevel);
@@ -120,8 +104,6 @@ public class IteratedSampling extends FeatureSelection {
 			}
 
 			// Updating selected cutpoints
-			Integer[] cutpoints = attributes.toArray(new Integer[0]);
-
 			for (Integer s : sc.getSolution()) {
 				Persistence p = persistences.get(cutpoints[s]);
 				p.numSelections++;
@@ -0,0 +1,204 @@
+package weka.classifiers.rules.lad.featureselection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import weka.classifiers.rules.lad.core.BinaryData;
+import weka.classifiers.rules.lad.core.BinaryInstance;
+import weka.classifiers.rules.lad.featureselection.setcovering.SetCovering;
+import weka.classifiers.rules.lad.util.ThreadPool;
+
+/**
+ * Class SetCoveringBuilder
+ * 
+ * Builds the set covering problem of separating pairs of observations of
+ * different classes: each pair is an element and each cutpoint a set, the
+ * cutpoints separating a pair being found from the XOR of their packed rows.
+ * 
+ * Instances are grouped by class and only pairs across classes are built, each
+ * pair of classes on its own, so the work is the sum of the products of the
+ * class sizes. The rows of a class are split in blocks of consecutive ones,
+ * built in parallel into primitive buffers of their own. The blocks are then
+ * appended in order, so the problem is the same for any number of threads.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.2
+ */
+public class SetCoveringBuilder {
+
+	/* Variables */
+	private final ArrayList<BinaryInstance> mInstances;
+	private final int mNumCutpoints;
+	private int mNumThreads = 1;
+
+	/** Main Constructor */
+	public SetCoveringBuilder(BinaryData data) {
+		this.mInstances = data.getInstances();
+		this.mNumCutpoints = data.numCutpoints();
+	}
+
+	/** SET of the number of threads (0 means all available processors) */
+	public void setNumThreads(int numThreads) {
+		mNumThreads = numThreads;
+	}
+
+	/**
+	 * Builds the problem of the pairs of the given instances of different classes.
+	 * Set s stands for the cutpoint cutpoints[s], or cutpoint s if cutpoints is
+	 * null.
+	 */
+	public SetCovering build(int[] instances, int[] cutpoints) {
+		final int numSets = cutpoints == null ? mNumCutpoints : cutpoints.length;
+		final int numWords = (mNumCutpoints + 63) >>> 6;
+
+		// Sampled cutpoints and their sets
+		final long[] sampled = new long[numWords];
+		final int[] sets = new int[mNumCutpoints];
+
+		for (int s = 0; s < numSets; s++) {
+			int c = cutpoints == null ? s : cutpoints[s];
+
+			sampled[c >>> 6] |= 1L << c;
+			sets[c] = s;
+		}
+
+		// Instances grouped by class, in the given order
+		final int[][] classes = group(instances);
+
+		// Blocks of rows of a class against every row of another one
+		long numPairs = 0;
+		for (int p = 0; p < classes.length; p++)
+			for (int q = p + 1; q < classes.length; q++)
+				numPairs += (long) classes[p].length * classes[q].length;
+
+		long target = Math.max(1, numPairs / (8 * ThreadPool.parallelism(mNumThreads)));
+		ArrayList<int[]> tasks = new ArrayList<int[]>();
+
+		for (int p = 0; p < classes.length; p++) {
+			for (int q = p + 1; q < classes.length; q++) {
+				if (classes[q].length == 0)
+					continue;
+
+				int size = (int) Math.min(classes[p].length, Math.max(1, target / classes[q].length));
+
+				for (int from = 0; from < classes[p].length; from += size)
+					tasks.add(new int[] { p, q, from, Math.min(classes[p].length, from + size) });
+			}
+		}
+
+		final int[][] blocks = tasks.toArray(new int[0][]);
+		final Block[] results = new Block[blocks.length];
+
+		ForkJoinPool pool = ThreadPool.create(mNumThreads);
+
+		try {
+			ThreadPool.forEach(pool, blocks.length, t -> {
+				int[] rows = classes[blocks[t][0]], columns = classes[blocks[t][1]];
+
+				Block block = new Block();
+				long[] difference = new long[numWords];
+
+				for (int i = blocks[t][2]; i < blocks[t][3]; i++) {
+					BinaryInstance A = mInstances.get(rows[i]);
+
+					for (int j = 0; j < columns.length; j++) {
+						BinaryInstance B = mInstances.get(columns[j]);
+
+						// Cutpoints separating the pair, a word at a time
+						A.difference(B, difference);
+
+						for (int k = 0; k < numWords; k++)
+							for (long word = difference[k] & sampled[k]; word != 0; word &= word - 1)
+								block.add(sets[(k << 6) + Long.numberOfTrailingZeros(word)]);
+
+						// Duplicate observations make as many pairs as the product of their weights
+						block.close((long) A.weight() * B.weight());
+					}
+				}
+
+				results[t] = block;
+			});
+		} finally {
+			pool.shutdown();
+		}
+
+		// Blocks appended in order
+		SetCovering sc = new SetCovering(numSets);
+
+		for (int t = 0; t < results.length; t++) {
+			sc.addElements(results[t].mNumElements, results[t].mOffsets, results[t].mSets, results[t].mWeights);
+			results[t] = null;
+		}
+
+		return sc;
+	}
+
+	/** Groups instances by class, keeping their order within each class */
+	private int[][] group(int[] instances) {
+		int numClasses = 0;
+		for (int i : instances)
+			numClasses = Math.max(numClasses, (int) mInstances.get(i).instanceClass() + 1);
+
+		int[] sizes = new int[numClasses];
+		for (int i : instances)
+			sizes[(int) mInstances.get(i).instanceClass()]++;
+
+		int[][] classes = new int[numClasses][];
+		for (int c = 0; c < numClasses; c++)
+			classes[c] = new int[sizes[c]];
+
+		Arrays.fill(sizes, 0);
+		for (int i : instances) {
+			int c = (int) mInstances.get(i).instanceClass();
+			classes[c][sizes[c]++] = i;
+		}
+
+		return classes;
+	}
+
+	/**
+	 * Class Block. Elements built by a block of rows: offsets into their sets,
+	 * sets and weights.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private static class Block {
+
+		/* Variables */
+		private int mNumElements = 0;
+		private int mNumSets = 0;
+		private int[] mOffsets = new int[16];
+		private int[] mSets = new int[64];
+		private long[] mWeights = new long[16];
+
+		/** Adds a set to the current element */
+		public void add(int set) {
+			if (mNumSets == mSets.length)
+				mSets = Arrays.copyOf(mSets, 2 * mSets.length);
+
+			mSets[mNumSets++] = set;
+		}
+
+		/** Closes the current element, dropping it if it has no sets */
+		public void close(long weight) {
+			if (mNumSets == mOffsets[mNumElements])
+				return;
+
+			if (mNumElements + 2 > mOffsets.length) {
+				mOffsets = Arrays.copyOf(mOffsets, 2 * mOffsets.length);
+				mWeights = Arrays.copyOf(mWeights, mOffsets.length);
+			}
+
+			mWeights[mNumElements] = weight;
+			mOffsets[++mNumElements] = mNumSets;
+		}
+	}
+}
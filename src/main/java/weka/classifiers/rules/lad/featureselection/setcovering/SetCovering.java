@@ -4,83 +4,187 @@ import java.io.FileOutputStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 
 /**
  * Class SetCovering
  * 
+ * An element may stand for several identical ones (e.g. pairs of duplicate
+ * observations) through its weight: the size of a set is the weight of the
+ * uncovered elements in it.
+ * 
+ * The incidence between elements and sets is kept in two compressed sparse row
+ * tables of primitive arrays: the sets of every element, filled as elements are
+ * added, and the elements of every set, built from it when solving.
+ * 
+ * The greedy step picks the set of largest size (the lowest cost / size, as
+ * every cost is 1), ties broken by the set order. Sets are kept in a heap by
+ * size, and since sizes only decrease, a size is just updated when its set
+ * reaches the top of the heap (lazy evaluation).
+ * 
  * @author Vaux Gomes
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.0
+ * @version 1.5
  */
 public class SetCovering implements Serializable {
 
 	/** SERIAL ID */
-	private static final long serialVersionUID = -4580626902003828381L;
+	private static final long serialVersionUID = 1503776820693457214L;
 
 	/* Variables */
-	private ArrayList<Set> mSets;
-	private ArrayList<Element> mElements;
+	private int mNumSets;
 	private ArrayList<Integer> mSolution;
 
+	/* Elements: offsets into the sets, sets and weights */
+	private int mNumElements;
+	private int[] mElementOffsets;
+	private int[] mElementSets;
+	private long[] mWeights;
+
+	/* Sets: offsets into the elements and elements (built by solve) */
+	private int[] mSetOffsets;
+	private int[] mSetElements;
+
+	/* Solving state */
+	private int[] mCounters;
+	private boolean[] mCovered;
+	private long[] mSizes;
+	private int mNumUncovered;
+
 	/** Main Constructor */
 	public SetCovering(int numSets) {
-		this.mElements = new ArrayList<Element>();
-		this.mSets = new ArrayList<Set>(numSets);
+		this.mNumSets = numSets;
 		this.mSolution = new ArrayList<Integer>(numSets);
 
-		for (int i = 0; i < numSets; i++)
-			mSets.add(new Set(i));
+		this.mElementOffsets = new int[16];
+		this.mElementSets = new int[16];
+		this.mWeights = new long[16];
 	}
 
 	/** Adds a new element to our problem */
 	public void addElement(ArrayList<Integer> sets) {
+		addElement(sets, 1);
+	}
+
+	/**
+	 * Adds a new element standing for a given number of identical ones. The sets
+	 * are given by their (distinct) indices.
+	 */
+	public void addElement(ArrayList<Integer> sets, long weight) {
 		if (sets.size() == 0)
 			return;
 
-		Element e = new Element(mElements.size(), sets.size());
-		mElements.add(e);
+		int from = mElementOffsets[mNumElements];
+		ensureCapacity(mNumElements + 1, from + sets.size());
+
+		for (Integer s : sets) {
+			if (s < 0 || s >= mNumSets)
+				throw new IndexOutOfBoundsException("Set: " + s + ", Number of sets: " + mNumSets);
+
+			mElementSets[from++] = s;
+		}
+
+		mWeights[mNumElements] = weight;
+		mElementOffsets[++mNumElements] = from;
+	}
+
+	/**
+	 * Adds a new element standing for a given number of identical ones. The sets
+	 * are given by a bitset, set i being in the element if bit i is on.
+	 */
+	public void addElement(long[] sets, long weight) {
+		int size = 0;
+		for (long word : sets)
+			size += Long.bitCount(word);
+
+		if (size == 0)
+			return;
+
+		int from = mElementOffsets[mNumElements];
+		ensureCapacity(mNumElements + 1, from + size);
+
+		for (int k = 0; k < sets.length; k++) {
+			for (long word = sets[k]; word != 0; word &= word - 1) {
+				int s = (k << 6) + Long.numberOfTrailingZeros(word);
+
+				if (s >= mNumSets)
+					throw new IndexOutOfBoundsException("Set: " + s + ", Number of sets: " + mNumSets);
+
+				mElementSets[from++] = s;
+			}
+		}
+
+		mWeights[mNumElements] = weight;
+		mElementOffsets[++mNumElements] = from;
+	}
+
+	/**
+	 * Adds a number of elements at once, given as the tables above: offsets (from
+	 * 0) into their sets, sets and weights.
+	 */
+	public void addElements(int numElements, int[] offsets, int[] sets, long[] weights) {
+		int from = mElementOffsets[mNumElements];
+		ensureCapacity(mNumElements + numElements, from + offsets[numElements]);
+
+		for (int i = 0; i < offsets[numElements]; i++)
+			if (sets[i] < 0 || sets[i] >= mNumSets)
+				throw new IndexOutOfBoundsException("Set: " + sets[i] + ", Number of sets: " + mNumSets);
 
-		for (Integer s : sets)
-			e.addSet(mSets.get(s));
+		System.arraycopy(sets, 0, mElementSets, from, offsets[numElements]);
+		System.arraycopy(weights, 0, mWeights, mNumElements, numElements);
 
-		for (Integer s : sets)
-			mSets.get(s).addElement(e);
+		for (int e = 1; e <= numElements; e++)
+			mElementOffsets[mNumElements + e] = from + offsets[e];
+
+		mNumElements += numElements;
+	}
+
+	/** Grows the element tables to hold a given number of elements and incidences */
+	private void ensureCapacity(int numElements, int numIncidences) {
+		if (numElements + 1 > mElementOffsets.length) {
+			mElementOffsets = Arrays.copyOf(mElementOffsets, Math.max(numElements + 1, 2 * mElementOffsets.length));
+			mWeights = Arrays.copyOf(mWeights, mElementOffsets.length);
+		}
 
+		if (numIncidences > mElementSets.length)
+			mElementSets = Arrays.copyOf(mElementSets, Math.max(numIncidences, 2 * mElementSets.length));
 	}
 
 	/** Solves the set covering problems using Chvatal's greedy heuristic. */
 	public void solve(int k) {
-		/* Auxiliary Variables */
-		HashMap<Integer, Integer> notCovereds = new HashMap<Integer, Integer>();
-		int[] coveringCounter = new int[this.mElements.size()];
+		buildSets();
 
-		for (Element e : this.mElements)
-			notCovereds.put(e.mName, e.mName);
+		mCounters = new int[mNumElements];
+		mCovered = new boolean[mNumElements];
+		mSizes = new long[mNumSets];
+		mNumUncovered = mNumElements;
+
+		for (int e = 0; e < mNumElements; e++)
+			for (int i = mElementOffsets[e]; i < mElementOffsets[e + 1]; i++)
+				mSizes[mElementSets[i]] += mWeights[e];
 
 		/*
 		 * Step 1. Pre-processing: Find all sets with just one element and add it to our
 		 * solution.
 		 */
 
-		for (Element elemento : this.mElements) {
-			if (elemento.numSets() == 1) {
-				for (Set c : elemento.mSets.values()) {
-					if (c.mElements.size() != 0) {
-						this.mSolution.add(c.mName);
+		boolean[] removed = new boolean[mNumSets];
 
-						for (Element e : c.getElementos()) {
-							e.autoKill();
-							notCovereds.remove(e.mName);
-						}
+		for (int e = 0; e < mNumElements; e++) {
+			if (mElementOffsets[e + 1] - mElementOffsets[e] == 1) {
+				int c = mElementSets[mElementOffsets[e]];
 
-					}
+				if (mSizes[c] != 0) {
+					this.mSolution.add(c);
 
-					this.mSets.remove(c);
+					for (int i = mSetOffsets[c]; i < mSetOffsets[c + 1]; i++)
+						if (!mCovered[mSetElements[i]])
+							cover(mSetElements[i]);
 				}
+
+				removed[c] = true;
 			}
 		}
 
@@ -88,52 +192,69 @@ public class SetCovering implements Serializable {
 		 * Step 2. Greedy algorithm
 		 */
 
-		while (notCovereds.size() > 0 && mSets.size() > 0) {
-			Set bestSet = null;
-			double bestCost = -1;
-
-			for (Set conj : this.mSets) {
-				double aux = conj.mCost / conj.getSize();
+		Heap heap = new Heap(mNumSets);
 
-				if ((aux < bestCost) || (bestSet == null)) {
-					bestSet = conj;
-					bestCost = aux;
-				}
-			}
+		for (int c = 0; c < mNumSets; c++)
+			if (!removed[c])
+				heap.push(mSizes[c], c);
 
-			if (bestSet != null) {
-				this.mSolution.add(bestSet.mName);
+		boolean first = true;
 
-				for (Element e : bestSet.getElementos()) {
-					int nome = e.mName;
-					coveringCounter[nome]++;
+		while (mNumUncovered > 0 && !heap.isEmpty()) {
+			long size = heap.topSize();
+			int bestSet = heap.pop();
 
-					if (coveringCounter[nome] == k) {
-						e.autoKill();
-						notCovereds.remove(nome);
-					}
-				}
+			// Outdated size: back to the heap with the current one
+			if (size != mSizes[bestSet]) {
+				heap.push(mSizes[bestSet], bestSet);
+				continue;
+			}
 
-				this.mSets.remove(bestSet);
-				for (Iterator<Set> it = this.mSets.iterator(); it.hasNext();) {
-					Set c = it.next();
+			// Empty sets are dropped once a set is chosen
+			if (mSizes[bestSet] == 0 && !first)
+				break;
 
-					if (c.getSize() == 0) {
-						it.remove();
-					}
-				}
+			first = false;
+			this.mSolution.add(bestSet);
 
-			} else {
-				mSolution.clear();
-				this.clear();
+			for (int i = mSetOffsets[bestSet]; i < mSetOffsets[bestSet + 1]; i++) {
+				int e = mSetElements[i];
 
-				return;
+				if (!mCovered[e] && ++mCounters[e] == k)
+					cover(e);
 			}
 		}
 
 		this.clear();
 	}
 
+	/** Builds the elements of every set out of the sets of every element */
+	private void buildSets() {
+		mSetOffsets = new int[mNumSets + 1];
+		mSetElements = new int[mElementOffsets[mNumElements]];
+
+		for (int i = 0; i < mElementOffsets[mNumElements]; i++)
+			mSetOffsets[mElementSets[i] + 1]++;
+
+		for (int c = 0; c < mNumSets; c++)
+			mSetOffsets[c + 1] += mSetOffsets[c];
+
+		int[] heads = Arrays.copyOf(mSetOffsets, mNumSets);
+
+		for (int e = 0; e < mNumElements; e++)
+			for (int i = mElementOffsets[e]; i < mElementOffsets[e + 1]; i++)
+				mSetElements[heads[mElementSets[i]]++] = e;
+	}
+
+	/** Marks an element as covered, removing it from all the sets it belongs to */
+	private void cover(int e) {
+		mCovered[e] = true;
+		mNumUncovered--;
+
+		for (int i = mElementOffsets[e]; i < mElementOffsets[e + 1]; i++)
+			mSizes[mElementSets[i]] -= mWeights[e];
+	}
+
 	/** GET of Solution */
 	public ArrayList<Integer> getSolution() {
 		return this.mSolution;
@@ -147,25 +268,25 @@ public class SetCovering implements Serializable {
 			// Object function
 			writer.println("Min Z = ");
 			boolean fist = true;
-			for (Set c : this.mSets) {
+			for (int c = 0; c < mNumSets; c++) {
 				if (fist) {
-					writer.print(" x" + c.mName);
+					writer.print(" x" + c);
 					fist = false;
 				} else
-					writer.print(" + x" + c.mName);
+					writer.print(" + x" + c);
 			}
 
 			writer.println("\nsubject to:");
 
 			// Coverage constraints
 			fist = true;
-			for (Element e : this.mElements) {
-				for (Set c : e.getSets()) {
+			for (int e = 0; e < mNumElements; e++) {
+				for (int i = mElementOffsets[e]; i < mElementOffsets[e + 1]; i++) {
 					if (fist) {
-						writer.print("x" + c.mName);
+						writer.print("x" + mElementSets[i]);
 						fist = false;
 					} else
-						writer.print(" + x" + c.mName);
+						writer.print(" + x" + mElementSets[i]);
 
 				}
 
@@ -174,8 +295,8 @@ public class SetCovering implements Serializable {
 
 			// Binary constraints
 			writer.print("Binary ");
-			for (Set c : this.mSets)
-				writer.print(" x" + c.mName);
+			for (int c = 0; c < mNumSets; c++)
+				writer.print(" x" + c);
 
 			writer.flush();
 			writer.close();
@@ -185,120 +306,100 @@ public class SetCovering implements Serializable {
 
 	/** Clears all the data stored, but the solution */
 	public void clear() {
-		mElements.clear();
-		mSets.clear();
-
-		// Calling for the Garbage Collector
-		System.gc();
+		mNumSets = 0;
+		mNumElements = 0;
+
+		mElementOffsets = new int[1];
+		mElementSets = new int[0];
+		mWeights = new long[0];
+
+		mSetOffsets = null;
+		mSetElements = null;
+		mCounters = null;
+		mCovered = null;
+		mSizes = null;
 	}
 
 	/**
-	 * Class Set
+	 * Class Heap. Binary max-heap of sets by size, ties going to the lowest
+	 * index.
 	 * 
 	 * @author Vaux Gomes
 	 * @author Tiberius Bonates
 	 * 
-	 * @since Mar 27, 2014
-	 * @version 1.0
+	 * @since Oct 17, 2026
+	 * @version 1.1
 	 */
-	private class Set implements Comparable<Set> {
+	private static class Heap {
 
 		/* Variables */
-		private HashMap<Element, Element> mElements;
-		private double mCost;
-		private int mName;
+		private final long[] mSizes;
+		private final int[] mIndexes;
+		private int mSize = 0;
 
 		/** Main Constructor */
-		public Set(int nome) {
-			this.mElements = new HashMap<Element, Element>();
-			this.mCost = 1.0;
-			this.mName = nome;
+		public Heap(int capacity) {
+			mSizes = new long[capacity];
+			mIndexes = new int[capacity];
 		}
 
-		/** GET of elements */
-		public ArrayList<Element> getElementos() {
-			return new ArrayList<Element>(this.mElements.values());
+		/** Checks if the heap is empty */
+		public boolean isEmpty() {
+			return mSize == 0;
 		}
 
-		/** Get of size */
-		public int getSize() {
-			return this.mElements.size();
-		}
+		/** Adds a set given its size and index */
+		public void push(long size, int index) {
+			int i = mSize++;
 
-		/** Method for adding a new element */
-		public void addElement(Element e) {
-			if (e != null) {
-				this.mElements.put(e, e);
-				e.addSet(this);
+			while (i > 0 && before(size, index, (i - 1) >>> 1)) {
+				move((i - 1) >>> 1, i);
+				i = (i - 1) >>> 1;
 			}
-		}
 
-		/** Method for removing an element */
-		public void removeElement(Element e) {
-			this.mElements.remove(e);
+			mSizes[i] = size;
+			mIndexes[i] = index;
 		}
 
-		@Override
-		public int compareTo(Set s) {
-			if (mName > s.mName)
-				return -1;
-			else if (mName < s.mName)
-				return 1;
-
-			return 0;
+		/** GET of the size of the top of the heap */
+		public long topSize() {
+			return mSizes[0];
 		}
-	}
 
-	/**
-	 * Class Element
-	 * 
-	 * @author Vaux Gomes
-	 * @author Tiberius Bonates
-	 * 
-	 * @since Mar 27, 2014
-	 * @version 1.0
-	 */
-	private class Element implements Comparable<Element> {
+		/** Removes the top of the heap, returning its index */
+		public int pop() {
+			int top = mIndexes[0];
+			long size = mSizes[--mSize];
+			int index = mIndexes[mSize];
+			int i = 0;
 
-		/* Variables */
-		private HashMap<Set, Set> mSets;
-		private int mName;
+			while (2 * i + 1 < mSize) {
+				int child = 2 * i + 1;
 
-		/** Main Constructor */
-		public Element(int name, int numSets) {
-			this.mSets = new HashMap<Set, Set>(numSets);
-			this.mName = name;
-		}
+				if (child + 1 < mSize && before(mSizes[child + 1], mIndexes[child + 1], child))
+					child++;
 
-		/** GET of number of sets */
-		public int numSets() {
-			return mSets.size();
-		}
+				if (before(size, index, child))
+					break;
 
-		/** GET of sets it belongs to */
-		public ArrayList<Set> getSets() {
-			return new ArrayList<Set>(this.mSets.values());
-		}
+				move(child, i);
+				i = child;
+			}
 
-		/** Method for adding a set */
-		public void addSet(Set c) {
-			this.mSets.put(c, c);
+			mSizes[i] = size;
+			mIndexes[i] = index;
+			return top;
 		}
 
-		/** Method for removing an element from all the sets it belongs to */
-		public void autoKill() {
-			for (Set c : this.mSets.values())
-				c.removeElement(this);
+		/** Checks if a set goes before the one at a position: larger, or as large and lower */
+		private boolean before(long size, int index, int position) {
+			return size > mSizes[position] || (size == mSizes[position] && index < mIndexes[position]);
 		}
 
-		@Override
-		public int compareTo(Element e) {
-			if (mName > e.mName)
-				return -1;
-			else if (mName < e.mName)
-				return 1;
-
-			return 0;
+		/** Moves the set at a position to another one */
+		private void move(int from, int to) {
+			mSizes[to] = mSizes[from];
+			mIndexes[to] = mIndexes[from];
 		}
 	}
 }
\ No newline at end of file
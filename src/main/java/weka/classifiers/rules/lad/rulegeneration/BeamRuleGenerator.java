@@ -0,0 +1,343 @@
+package weka.classifiers.rules.lad.rulegeneration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+
+import weka.classifiers.rules.lad.core.BinaryColumns;
+import weka.classifiers.rules.lad.core.BinaryData;
+import weka.classifiers.rules.lad.core.BinaryInstance;
+import weka.classifiers.rules.lad.core.BinaryRule;
+import weka.classifiers.rules.lad.core.Literal;
+import weka.classifiers.rules.lad.util.ThreadPool;
+import weka.core.Option;
+import weka.core.Utils;
+
+/**
+ * Class BeamRuleGenerator
+ * 
+ * Top-down beam search for a pattern of every observation (seed). Terms grow
+ * one literal of the seed at a time, and only the best terms of each degree
+ * (the beam) are extended to the next one. The coverage of a child is the AND
+ * of the bitset of its parent and the bitset of the new literal, so a step
+ * costs a pass over the covered words for each term of the beam and literal of
+ * the seed. Terms reaching the minimum purity are patterns and are not
+ * extended; the one covering the most observations of the class is kept.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.0
+ */
+public class BeamRuleGenerator extends RuleGenerator {
+
+	/** SERIAL ID */
+	private static final long serialVersionUID = -5112804392738160574L;
+
+	/* Parameters */
+	private int mBeamWidth = 10;
+	private int mMaxDegree = 4;
+
+	@Override
+	public void fit(BinaryData data) {
+		mData = data;
+
+		// One slot per seed so the rules keep the order of the seeds
+		final BinaryRule[] rules = new BinaryRule[data.numInstances()];
+		ForkJoinPool pool = ThreadPool.create(mNumThreads);
+
+		try {
+			ThreadPool.forEach(pool, rules.length, i -> rules[i] = search(mData.getInstance(i)));
+		} finally {
+			pool.shutdown();
+		}
+
+		for (BinaryRule rule : rules)
+			if (rule != null)
+				addRule(rule);
+	}
+
+	/** Beam search for the pattern of a seed (null if none is found) */
+	private BinaryRule search(BinaryInstance seed) {
+		BinaryColumns columns = mData.getColumns();
+
+		double label = seed.instanceClass();
+		long[] labels = columns.getLabel(label);
+
+		// Literals of the seed and their coverage (computed once)
+		ArrayList<Literal> literals = new ArrayList<Literal>();
+
+		for (int i = 0; i < seed.numAttributes(); i++)
+			if (!seed.isMissingAttribute(i))
+				literals.add(new Literal(i, seed.getBinAt(i)));
+
+		long[][] masks = new long[literals.size()][columns.numWords()];
+
+		for (int l = 0; l < masks.length; l++)
+			columns.cover(masks[l], literals.get(l), label);
+
+		Term root = new Term(null, -1, columns.count(mData.getMask(), label), mData.sumOfWeights());
+		root.mMask = mData.getMask();
+
+		Term best = root.purity() >= mMinimumPurity ? root : null;
+		ArrayList<Term> beam = new ArrayList<Term>();
+
+		if (best == null)
+			beam.add(root);
+
+		for (int degree = 1; degree <= mMaxDegree && !beam.isEmpty(); degree++) {
+			ArrayList<Term> children = new ArrayList<Term>();
+			HashSet<Term> seen = new HashSet<Term>();
+
+			for (Term parent : beam) {
+				long[] mask = parent.mMask;
+
+				for (int l = 0; l < masks.length; l++) {
+					int coverage = 0, size = 0;
+
+					for (int k = 0; k < mask.length; k++) {
+						long word = mask[k] & masks[l][k];
+
+						coverage += columns.weigh(word & labels[k], k);
+						size += columns.weigh(word, k);
+					}
+
+					// Children that cannot beat the best pattern or add nothing
+					if (coverage == 0 || size == parent.mSize)
+						continue;
+					if (best != null && coverage <= best.mCoverage)
+						continue;
+
+					Term child = new Term(parent, l, coverage, size);
+
+					if (!seen.add(child))
+						continue;
+
+					// A pattern: literals added to it would just lower its coverage
+					if (child.purity() >= mMinimumPurity)
+						best = child;
+					else
+						children.add(child);
+				}
+			}
+
+			// Keeping the best terms (purity desc, coverage desc, generation order)
+			Collections.sort(children, ORDER);
+
+			beam.clear();
+
+			for (Term child : children) {
+				if (beam.size() == mBeamWidth)
+					break;
+				if (best != null && child.mCoverage <= best.mCoverage)
+					continue;
+
+				child.mMask = new long[columns.numWords()];
+				for (int k = 0; k < child.mMask.length; k++)
+					child.mMask[k] = child.mParent.mMask[k] & masks[child.mLiteral][k];
+
+				beam.add(child);
+			}
+
+			// Masks of the previous degree are no longer needed
+			for (Term term : beam)
+				if (term.mParent != root)
+					term.mParent.mMask = null;
+		}
+
+		if (best == null)
+			return null;
+
+		// Literals in the order they were added
+		ArrayList<Literal> rule = new ArrayList<Literal>();
+
+		for (Term term = best; term != root; term = term.mParent)
+			rule.add(literals.get(term.mLiteral));
+
+		Collections.reverse(rule);
+		return new BinaryRule(rule, label, best.purity());
+	}
+
+	@Override
+	public void checkForExceptions() throws Exception {
+		super.checkForExceptions();
+
+		if (mBeamWidth < 1)
+			throw new Exception("Rule Generator: Beam Width must be greater than or equal to 1.");
+		else if (mMaxDegree < 1)
+			throw new Exception("Rule Generator: Maximum Degree must be greater than or equal to 1.");
+	}
+
+	@Override
+	public String toString() {
+		return getRules().toString();
+	}
+
+	/** Order of the terms in the beam: purity desc, then coverage desc */
+	private final static Comparator<Term> ORDER = new Comparator<Term>() {
+		@Override
+		public int compare(Term a, Term b) {
+			int purity = Long.compare((long) b.mCoverage * a.mSize, (long) a.mCoverage * b.mSize);
+			return purity != 0 ? purity : Integer.compare(b.mCoverage, a.mCoverage);
+		}
+	};
+
+	/**
+	 * Class Term. A term of the beam: its parent, the literal it adds, its
+	 * coverage and, while in the beam, the bitset of the instances it covers. Two
+	 * terms are equal when they have the same literals.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private static class Term {
+
+		/* Variables */
+		private final Term mParent;
+		private final int mLiteral;
+		private final int[] mKey;
+		private final int mCoverage;
+		private final int mSize;
+		private long[] mMask;
+
+		/** Main Constructor */
+		public Term(Term parent, int literal, int coverage, int size) {
+			mParent = parent;
+			mLiteral = literal;
+			mCoverage = coverage;
+			mSize = size;
+
+			// Literals of the term, sorted
+			if (parent == null) {
+				mKey = new int[0];
+			} else {
+				mKey = Arrays.copyOf(parent.mKey, parent.mKey.length + 1);
+				mKey[mKey.length - 1] = literal;
+				Arrays.sort(mKey);
+			}
+		}
+
+		/** Stats: Purity of the term */
+		public double purity() {
+			return mSize == 0 ? 0 : mCoverage / (double) mSize;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(mKey);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Term && Arrays.equals(mKey, ((Term) obj).mKey);
+		}
+	}
+
+	/*
+	 * ------------------------------------------------------------------------
+	 * DISPLAY SETs & GETs
+	 * ------------------------------------------------------------------------
+	 */
+
+	/** GET of beamWidth to Display */
+	public int getBeamWidth() {
+		return mBeamWidth;
+	}
+
+	/** SET of beamWidth to Display */
+	public void setBeamWidth(int beamWidth) {
+		this.mBeamWidth = beamWidth;
+	}
+
+	/** GET of maxDegree to Display */
+	public int getMaxDegree() {
+		return mMaxDegree;
+	}
+
+	/** SET of maxDegree to Display */
+	public void setMaxDegree(int maxDegree) {
+		this.mMaxDegree = maxDegree;
+	}
+
+	/*
+	 * ----------------------------------------------------------------------
+	 * DISPLAY INFORMATIONS & TIP TEXTs
+	 * ----------------------------------------------------------------------
+	 */
+
+	/** information of the Algorithm */
+	public String globalInfo() {
+		return "Grows a pattern for every observation with a beam search over the literals of "
+				+ "the observation. At each degree only the terms with the highest purity are "
+				+ "extended; terms reaching the minimum purity (from the main LAD classifier) are "
+				+ "patterns, and the one covering the most observations of its class is kept. "
+				+ "The work per pattern is bounded by the beam width and the maximum degree.";
+	}
+
+	/** beamWidth Tip Text */
+	public String beamWidthTipText() {
+		return "Number of terms extended from one degree to the next. Wider beams find patterns "
+				+ "of higher coverage at a proportional cost.";
+	}
+
+	/** maxDegree Tip Text */
+	public String maxDegreeTipText() {
+		return "Maximum number of literals of a pattern.";
+	}
+
+	/*
+	 * ----------------------------------------------------------------------
+	 * OPTIONS METHODS
+	 * ----------------------------------------------------------------------
+	 */
+
+	@Override
+	public String[] getOptions() {
+		Vector<String> options = new Vector<String>();
+
+		options.add("-bw");
+		options.add("" + getBeamWidth());
+		options.add("-dg");
+		options.add("" + getMaxDegree());
+
+		return (String[]) options.toArray(new String[options.size()]);
+	}
+
+	@Override
+	public void setOptions(String[] options) throws Exception {
+		// Looking for Beam Width
+		String beamWidth = Utils.getOption("bw", options);
+		if (beamWidth.length() != 0) {
+			setBeamWidth(Integer.parseInt(beamWidth));
+		}
+
+		// Looking for Maximum Degree
+		String maxDegree = Utils.getOption("dg", options);
+		if (maxDegree.length() != 0) {
+			setMaxDegree(Integer.parseInt(maxDegree));
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Enumeration listOptions() {
+		Vector<Option> newVector = new Vector<Option>(2);
+
+		newVector.addElement(new Option("\tBeam Width. Number of terms extended from one degree\n"
+				+ "\tto the next. (Default = 10)\n", "bw", 1, "-bw <beam_width>"));
+
+		newVector.addElement(new Option("\tMaximum Degree. Maximum number of literals of a pattern.\n"
+				+ "\t(Default = 4)\n", "dg", 1, "-dg <max_degree>"));
+
+		return newVector.elements();
+	}
+}
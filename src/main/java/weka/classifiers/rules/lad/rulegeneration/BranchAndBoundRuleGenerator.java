@@ -0,0 +1,404 @@
+package weka.classifiers.rules.lad.rulegeneration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+
+import weka.classifiers.rules.lad.core.BinaryColumns;
+import weka.classifiers.rules.lad.core.BinaryData;
+import weka.classifiers.rules.lad.core.BinaryInstance;
+import weka.classifiers.rules.lad.core.BinaryRule;
+import weka.classifiers.rules.lad.core.Literal;
+import weka.classifiers.rules.lad.util.ThreadPool;
+import weka.core.Option;
+import weka.core.Utils;
+
+/**
+ * Class BranchAndBoundRuleGenerator
+ * 
+ * Maximum pattern of every observation (seed): among the patterns made of
+ * literals of the seed, the one covering the most observations of its class,
+ * as defined in the "Maximum Patterns in Datasets" paper. It is found by a
+ * depth-first branch-and-bound over the literals of the seed. The coverage of a
+ * node is the AND of the bitsets of its literals, and it bounds the coverage of
+ * every node below it, so a node is pruned once it cannot beat the best
+ * pattern found so far. Seeds are searched in parallel; the search of a seed
+ * stops at a time limit, keeping the best pattern found so far.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.1
+ */
+public class BranchAndBoundRuleGenerator extends RuleGenerator {
+
+	/** SERIAL ID */
+	private static final long serialVersionUID = 4480817626372406415L;
+
+	/* Parameters */
+	private int mTimeLimit = 100;
+
+	/* Auxiliary */
+	private final static int CHECK_INTERVAL = 256;
+
+	@Override
+	public void fit(BinaryData data) {
+		mData = data;
+
+		// One slot per seed so the rules keep the order of the seeds
+		final BinaryRule[] rules = new BinaryRule[data.numInstances()];
+		ForkJoinPool pool = ThreadPool.create(mNumThreads);
+
+		try {
+			ThreadPool.forEach(pool, rules.length, i -> rules[i] = new Search(mData.getInstance(i)).run());
+		} finally {
+			pool.shutdown();
+		}
+
+		for (BinaryRule rule : rules)
+			if (rule != null)
+				addRule(rule);
+	}
+
+	@Override
+	public void checkForExceptions() throws Exception {
+		super.checkForExceptions();
+
+		if (mTimeLimit < 0)
+			throw new Exception("Rule Generator: Time Limit must be greater than or equal to 0.");
+	}
+
+	@Override
+	public String toString() {
+		return getRules().toString();
+	}
+
+	/**
+	 * Class Search. Branch-and-bound for the maximum pattern of a seed. A node is
+	 * a set of literals and the bitset of the instances it covers. Its children
+	 * add one of the literals that must be in any pattern below it (see
+	 * {@link #branchingLiterals}), tried in decreasing order of coverage, each
+	 * child forbidding the ones tried before.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private class Search {
+
+		/* Variables */
+		private final BinaryColumns mColumns;
+		private final double mLabel;
+		private final long[] mLabels;
+		private final Literal[] mLiterals;
+		private final long[][] mMasks;
+
+		/* Current node */
+		private final int[] mChosen;
+		private final long[][] mStack;
+
+		/* Best pattern */
+		private int mBestCoverage = 0;
+		private int mBestSize = 0;
+		private double mBestPurity = 0;
+		private int[] mBest;
+
+		/* Time limit */
+		private final long mDeadline;
+		private int mNodes = 0;
+		private boolean mTimeout = false;
+
+		/** Main Constructor */
+		public Search(BinaryInstance seed) {
+			BinaryColumns columns = mData.getColumns();
+
+			mColumns = columns;
+			mLabel = seed.instanceClass();
+			mLabels = columns.getLabel(mLabel);
+
+			// Literals of the seed and their coverage (computed once)
+			ArrayList<Literal> literals = new ArrayList<Literal>();
+
+			for (int i = 0; i < seed.numAttributes(); i++)
+				if (!seed.isMissingAttribute(i))
+					literals.add(new Literal(i, seed.getBinAt(i)));
+
+			mLiterals = literals.toArray(new Literal[literals.size()]);
+			mMasks = new long[mLiterals.length][columns.numWords()];
+
+			for (int l = 0; l < mLiterals.length; l++)
+				columns.cover(mMasks[l], mLiterals[l], mLabel);
+
+			mChosen = new int[mLiterals.length];
+			mStack = new long[mLiterals.length + 1][];
+			mBest = new int[0];
+
+			mDeadline = mTimeLimit == 0 ? Long.MAX_VALUE : System.nanoTime() + mTimeLimit * 1000000L;
+		}
+
+		/** Runs the search, returning the best pattern found (or null) */
+		public BinaryRule run() {
+			int[] candidates = new int[mLiterals.length];
+			for (int l = 0; l < candidates.length; l++)
+				candidates[l] = l;
+
+			mStack[0] = mData.getMask();
+			branch(0, candidates);
+
+			if (mBestCoverage == 0)
+				return null;
+
+			ArrayList<Literal> rule = new ArrayList<Literal>(mBestSize);
+			for (int i = 0; i < mBestSize; i++)
+				rule.add(mLiterals[mBest[i]]);
+
+			return new BinaryRule(rule, mLabel, mBestPurity);
+		}
+
+		/** Explores a node given its depth and its candidate literals */
+		private void branch(int depth, int[] candidates) {
+			long[] mask = mStack[depth];
+
+			int coverage = count(mask, mLabels);
+			int size = count(mask, null);
+
+			// Bound: no node below covers more
+			if (coverage <= mBestCoverage)
+				return;
+
+			double purity = coverage / (double) size;
+
+			// A pattern: literals added below would just lower its coverage
+			if (purity >= mMinimumPurity) {
+				mBestCoverage = coverage;
+				mBestSize = depth;
+				mBestPurity = purity;
+				mBest = Arrays.copyOf(mChosen, depth);
+				return;
+			}
+
+			if (++mNodes % CHECK_INTERVAL == 0 && System.nanoTime() > mDeadline)
+				mTimeout = true;
+
+			if (mTimeout)
+				return;
+
+			// Coverage of every child, as sorting keys (coverage desc, index asc)
+			long[] keys = new long[candidates.length];
+			int numKeys = 0;
+
+			for (int c = 0; c < candidates.length; c++) {
+				long[] literal = mMasks[candidates[c]];
+				int childCoverage = 0, childSize = 0;
+
+				for (int k = 0; k < mask.length; k++) {
+					long word = mask[k] & literal[k];
+
+					childCoverage += mColumns.weigh(word & mLabels[k], k);
+					childSize += mColumns.weigh(word, k);
+				}
+
+				// Pruned children and literals excluding no instance
+				if (childCoverage <= mBestCoverage || childSize == size)
+					continue;
+
+				keys[numKeys++] = ((long) (Integer.MAX_VALUE - childCoverage) << 32) | candidates[c];
+			}
+
+			Arrays.sort(keys, 0, numKeys);
+
+			int[] ordered = new int[numKeys];
+			for (int c = 0; c < numKeys; c++)
+				ordered[c] = (int) keys[c];
+
+			// Literals of which any pattern below must have at least one
+			boolean[] heads = branchingLiterals(mask, coverage, ordered);
+
+			if (heads == null)
+				return;
+
+			// Children: each one forbids the branching literals tried before it
+			int[] remaining = ordered;
+
+			for (int c = 0; c < numKeys && !mTimeout; c++) {
+				if (!heads[c])
+					continue;
+
+				int literal = ordered[c];
+				remaining = without(remaining, literal);
+
+				if (mStack[depth + 1] == null)
+					mStack[depth + 1] = new long[mask.length];
+
+				long[] child = mStack[depth + 1];
+				for (int k = 0; k < mask.length; k++)
+					child[k] = mask[k] & mMasks[literal][k];
+
+				mChosen[depth] = literal;
+				branch(depth + 1, remaining);
+			}
+		}
+
+		/**
+		 * A pattern below a node keeps at most a given number of observations of
+		 * other classes covered by the node. Those no candidate can exclude are kept by
+		 * all of them (the node is a dead end if they are too many, and the result is
+		 * null), so it must exclude at least one of any group of the others weighing
+		 * more than what is left. The group is made of the observations excluded by
+		 * the fewest candidates, and the result flags the candidates excluding one of
+		 * them.
+		 */
+		private boolean[] branchingLiterals(long[] mask, int coverage, int[] candidates) {
+			boolean[] heads = new boolean[candidates.length];
+			int allowed = (int) Math.floor(coverage * (1 - mMinimumPurity) / mMinimumPurity + 1e-9);
+
+			// Observations of other classes and their number of excluding candidates
+			long[] keys = new long[BinaryColumns.cardinality(mask)];
+			int numKeys = 0, weight = 0, kept = 0;
+
+			for (int k = 0; k < mask.length; k++) {
+				long word = mask[k] & ~mLabels[k];
+
+				while (word != 0) {
+					int j = (k << 6) + Long.numberOfTrailingZeros(word);
+					word &= word - 1;
+
+					int excluders = 0;
+					for (int c = 0; c < candidates.length; c++)
+						if (!BinaryColumns.get(mMasks[candidates[c]], j))
+							excluders++;
+
+					weight += mColumns.weight(j);
+
+					// Observations no candidate excludes
+					if (excluders == 0)
+						kept += mColumns.weight(j);
+					else
+						keys[numKeys++] = ((long) excluders << 32) | j;
+				}
+			}
+
+			if (weight <= allowed) {
+				Arrays.fill(heads, true);
+				return heads;
+			}
+
+			if (kept > allowed)
+				return null;
+
+			Arrays.sort(keys, 0, numKeys);
+
+			// The group weighs more than what is left (duplicates weigh their number)
+			for (int i = 0, groupWeight = 0; groupWeight <= allowed - kept; i++) {
+				int j = (int) keys[i];
+				groupWeight += mColumns.weight(j);
+
+				for (int c = 0; c < candidates.length; c++)
+					if (!BinaryColumns.get(mMasks[candidates[c]], j))
+						heads[c] = true;
+			}
+
+			return heads;
+		}
+
+		/** Copy of a list of literals without one of them */
+		private int[] without(int[] literals, int literal) {
+			int[] copy = new int[literals.length - 1];
+
+			for (int i = 0, j = 0; i < literals.length; i++)
+				if (literals[i] != literal)
+					copy[j++] = literals[i];
+
+			return copy;
+		}
+
+		/** Number of instances in a mask (of the class, if labels are given) */
+		private int count(long[] mask, long[] labels) {
+			int count = 0;
+
+			for (int k = 0; k < mask.length; k++)
+				count += mColumns.weigh(labels == null ? mask[k] : mask[k] & labels[k], k);
+
+			return count;
+		}
+	}
+
+	/*
+	 * ------------------------------------------------------------------------
+	 * DISPLAY SETs & GETs
+	 * ------------------------------------------------------------------------
+	 */
+
+	/** GET of timeLimit to Display */
+	public int getTimeLimit() {
+		return mTimeLimit;
+	}
+
+	/** SET of timeLimit to Display */
+	public void setTimeLimit(int timeLimit) {
+		this.mTimeLimit = timeLimit;
+	}
+
+	/*
+	 * ----------------------------------------------------------------------
+	 * DISPLAY INFORMATIONS & TIP TEXTs
+	 * ----------------------------------------------------------------------
+	 */
+
+	/** information of the Algorithm */
+	public String globalInfo() {
+		return "Finds the maximum pattern of every observation described in the \"Maximum "
+				+ "Patterns in Datasets\" paper: among the patterns satisfied by the observation, "
+				+ "the one covering the most observations of its class, whose purity must reach "
+				+ "the minimum purity (from the main LAD classifier). It runs a branch-and-bound "
+				+ "search over the literals of the observation, which keeps the best pattern found "
+				+ "so far once the time limit is reached.";
+	}
+
+	/** timeLimit Tip Text */
+	public String timeLimitTipText() {
+		return "Time limit of the search of each observation, in milliseconds (0 for no limit). "
+				+ "With a limit, the patterns found may depend on the speed of the machine.";
+	}
+
+	/*
+	 * ----------------------------------------------------------------------
+	 * OPTIONS METHODS
+	 * ----------------------------------------------------------------------
+	 */
+
+	@Override
+	public String[] getOptions() {
+		Vector<String> options = new Vector<String>();
+
+		options.add("-tl");
+		options.add("" + getTimeLimit());
+
+		return (String[]) options.toArray(new String[options.size()]);
+	}
+
+	@Override
+	public void setOptions(String[] options) throws Exception {
+		// Looking for Time Limit
+		String timeLimit = Utils.getOption("tl", options);
+		if (timeLimit.length() != 0) {
+			setTimeLimit(Integer.parseInt(timeLimit));
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Enumeration listOptions() {
+		Vector<Option> newVector = new Vector<Option>(1);
+
+		newVector.addElement(new Option("\tTime Limit. Time limit of the search of each observation,\n"
+				+ "\tin milliseconds. (Default = 100, 0 for no limit)\n", "tl", 1, "-tl <time_limit>"));
+
+		return newVector.elements();
+	}
+}
@@ -0,0 +1,460 @@
+package weka.classifiers.rules.lad.rulegeneration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+
+import weka.classifiers.rules.lad.core.BinaryColumns;
+import weka.classifiers.rules.lad.core.BinaryData;
+import weka.classifiers.rules.lad.core.BinaryRule;
+import weka.classifiers.rules.lad.core.Literal;
+import weka.classifiers.rules.lad.util.ThreadPool;
+import weka.core.Option;
+import weka.core.Utils;
+
+/**
+ * Class ExhaustiveRuleGenerator
+ * 
+ * Bottom-up enumeration of the prime patterns of degree up to d, one class at a
+ * time. A term of degree k is built by joining two terms of degree k - 1 that
+ * share their first k - 2 literals, and its coverage is the AND of their
+ * coverage bitsets. Terms reaching the minimum purity
+ * are patterns and are not extended any further; terms covering no instance of
+ * the class are dropped; the others form the frontier of the next degree. A
+ * term is only generated if all of its sub-terms are in the frontier, so every
+ * pattern found is prime.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.1
+ */
+public class ExhaustiveRuleGenerator extends RuleGenerator {
+
+	/** SERIAL ID */
+	private static final long serialVersionUID = -7390412187745830317L;
+
+	/* Parameters */
+	private int mMaxDegree = 3;
+	private int mFrontierSize = 5000;
+
+	/* Variables */
+	private Literal[] mLiterals;
+
+	@Override
+	public void fit(BinaryData data) {
+		mData = data;
+
+		// Every literal, ordered by cutpoint
+		ArrayList<Literal> literals = new ArrayList<Literal>();
+
+		for (int i = 0; i < data.numCutpoints(); i++) {
+			literals.add(new Literal(i, true));
+			literals.add(new Literal(i, false));
+		}
+
+		mLiterals = literals.toArray(new Literal[literals.size()]);
+		ForkJoinPool pool = ThreadPool.create(mNumThreads);
+
+		try {
+			for (int label = 0; label < data.numClassLabels(); label++)
+				if (data.getCoverage(label) > 0)
+					enumerate(pool, label);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/** Enumerates the prime patterns of a class, degree by degree */
+	private void enumerate(ForkJoinPool pool, final double label) {
+		final BinaryColumns columns = mData.getColumns();
+
+		// Degree 1: the literals
+		final Term[] terms = new Term[mLiterals.length];
+
+		ThreadPool.forEach(pool, terms.length, l -> {
+			long[] mask = mData.getMask().clone();
+			columns.and(mask, mLiterals[l], label);
+
+			terms[l] = term(new int[] { l }, mask, columns.count(mask, label), columns.count(mask));
+		});
+
+		Selection selection = new Selection();
+		for (Term term : terms)
+			selection.add(term);
+
+		ArrayList<Term> frontier = select(pool, new Selection[] { selection }, label);
+
+		// Degree 2 and up: joining terms that differ on their last literal only
+		for (int degree = 2; degree <= mMaxDegree && frontier.size() > 1; degree++) {
+			final ArrayList<Term> parents = frontier;
+			final HashSet<Term> members = new HashSet<Term>(parents);
+			final boolean last = degree == mMaxDegree;
+
+			// A few blocks of parents per thread, each one keeping its best terms only
+			final int size = Math.max(1, (parents.size() + 8 * pool.getParallelism() - 1) / (8 * pool.getParallelism()));
+			final Selection[] selections = new Selection[(parents.size() + size - 1) / size];
+
+			ThreadPool.forEach(pool, selections.length, b -> {
+				Selection joined = new Selection();
+
+				for (int t = b * size; t < Math.min(parents.size(), (b + 1) * size); t++)
+					join(parents, t, members, label, last, joined);
+
+				selections[b] = joined;
+			});
+
+			frontier = select(pool, selections, label);
+		}
+	}
+
+	/**
+	 * Adds the patterns of the selections of a degree, in order, and returns the
+	 * frontier: their best terms, in lexicographic order. Only the coverage of the
+	 * terms in the frontier is kept.
+	 */
+	private ArrayList<Term> select(ForkJoinPool pool, Selection[] selections, double label) {
+		Selection frontier = new Selection();
+
+		for (Selection selection : selections) {
+			for (Term pattern : selection.mPatterns)
+				addRule(pattern.toRule(label));
+
+			for (Term term : selection.mTerms)
+				frontier.add(term);
+		}
+
+		final ArrayList<Term> selected = new ArrayList<Term>(frontier.mTerms);
+		Collections.sort(selected);
+
+		ThreadPool.forEach(pool, selected.size(), t -> selected.get(t).cover());
+
+		return selected;
+	}
+
+	/**
+	 * Adds to a selection the terms obtained by joining a term with the later
+	 * terms of the frontier that share all but its last literal, which must be on
+	 * a later cutpoint. On the last degree only the patterns are added.
+	 */
+	private void join(ArrayList<Term> frontier, int index, HashSet<Term> members, double label, boolean last,
+			Selection children) {
+		BinaryColumns columns = mData.getColumns();
+		long[] labels = columns.getLabel(label);
+
+		Term term = frontier.get(index);
+		int degree = term.mCodes.length;
+		int cutpoint = mLiterals[term.mCodes[degree - 1]].getAtt();
+
+		for (int u = index + 1; u < frontier.size(); u++) {
+			Term other = frontier.get(u);
+
+			if (!term.isSibling(other))
+				break;
+
+			if (mLiterals[other.mCodes[degree - 1]].getAtt() == cutpoint)
+				continue;
+
+			// Counting before allocating: most joins are dropped
+			int coverage = 0, size = 0;
+
+			for (int k = 0; k < labels.length; k++) {
+				long word = term.mMask[k] & other.mMask[k];
+
+				coverage += columns.weigh(word & labels[k], k);
+				size += columns.weigh(word, k);
+			}
+
+			boolean pattern = coverage / (double) size >= mMinimumPurity;
+
+			if (coverage == 0 || (last && !pattern))
+				continue;
+
+			int[] codes = Arrays.copyOf(term.mCodes, degree + 1);
+			codes[degree] = other.mCodes[degree - 1];
+
+			// Primality: the sub-terms but the two joined ones must be in the frontier
+			if (degree > 1 && !subterms(codes, members))
+				continue;
+
+			Term child = term(codes, null, coverage, size);
+
+			// The coverage is only computed if the term makes it to the frontier
+			if (!pattern) {
+				child.mLeft = term;
+				child.mRight = other;
+			}
+
+			children.add(child);
+		}
+	}
+
+	/** Creates a term, or null if it covers no instance of the class */
+	private Term term(int[] codes, long[] mask, int coverage, int size) {
+		return coverage == 0 ? null : new Term(codes, mask, coverage, coverage / (double) size);
+	}
+
+	/** Checks whether the sub-terms missing one of the first literals are in the frontier */
+	private boolean subterms(int[] codes, HashSet<Term> frontier) {
+		int[] subterm = new int[codes.length - 1];
+
+		for (int skip = 0; skip < codes.length - 2; skip++) {
+			for (int i = 0, j = 0; i < codes.length; i++)
+				if (i != skip)
+					subterm[j++] = codes[i];
+
+			if (!frontier.contains(new Term(subterm, null, 0, 0)))
+				return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public void checkForExceptions() throws Exception {
+		super.checkForExceptions();
+
+		if (mMaxDegree < 1)
+			throw new Exception("Rule Generator: Maximum Degree must be greater than or equal to 1.");
+		else if (mFrontierSize < 1)
+			throw new Exception("Rule Generator: Frontier Size must be greater than or equal to 1.");
+	}
+
+	@Override
+	public String toString() {
+		return getRules().toString();
+	}
+
+	/**
+	 * Class Term. A conjunction of literals (given by their indices, in increasing
+	 * order) and the instances it covers. Terms are equal if they hold the same
+	 * literals and are ordered lexicographically.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private class Term implements Comparable<Term> {
+
+		/* Variables */
+		private final int[] mCodes;
+		private long[] mMask;
+		private final int mCoverage;
+		private final double mPurity;
+
+		/* Joined terms */
+		private Term mLeft;
+		private Term mRight;
+
+		/** Main Constructor */
+		public Term(int[] codes, long[] mask, int coverage, double purity) {
+			this.mCodes = codes.clone();
+			this.mMask = mask;
+			this.mCoverage = coverage;
+			this.mPurity = purity;
+		}
+
+		/** Computes the coverage of a joined term */
+		public void cover() {
+			if (mMask != null)
+				return;
+
+			mMask = new long[mLeft.mMask.length];
+
+			for (int k = 0; k < mMask.length; k++)
+				mMask[k] = mLeft.mMask[k] & mRight.mMask[k];
+
+			mLeft = null;
+			mRight = null;
+		}
+
+		/** Checks if this term is a pattern */
+		public boolean isPattern() {
+			return mPurity >= mMinimumPurity;
+		}
+
+		/** Checks if two terms of the same degree differ on their last literal only */
+		public boolean isSibling(Term term) {
+			for (int i = 0; i < mCodes.length - 1; i++)
+				if (mCodes[i] != term.mCodes[i])
+					return false;
+
+			return true;
+		}
+
+		/** Rule of a pattern */
+		public BinaryRule toRule(double label) {
+			ArrayList<Literal> literals = new ArrayList<Literal>(mCodes.length);
+
+			for (int code : mCodes)
+				literals.add(mLiterals[code]);
+
+			return new BinaryRule(literals, label, mPurity);
+		}
+
+		@Override
+		public int compareTo(Term term) {
+			for (int i = 0; i < mCodes.length; i++)
+				if (mCodes[i] != term.mCodes[i])
+					return mCodes[i] < term.mCodes[i] ? -1 : 1;
+
+			return 0;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Term && Arrays.equals(mCodes, ((Term) obj).mCodes);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(mCodes);
+		}
+	}
+
+	/**
+	 * Class Selection. Patterns, in the order they are added, and the terms
+	 * covering more of the class among the others, at most the frontier size of
+	 * them (ties go to the lexicographically lower). The terms are kept in a heap,
+	 * the worst one on top.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private class Selection {
+
+		/* Variables */
+		private final ArrayList<Term> mPatterns = new ArrayList<Term>();
+		private final PriorityQueue<Term> mTerms = new PriorityQueue<Term>(new Comparator<Term>() {
+			@Override
+			public int compare(Term a, Term b) {
+				return a.mCoverage != b.mCoverage ? Integer.compare(a.mCoverage, b.mCoverage) : b.compareTo(a);
+			}
+		});
+
+		/** Adds a term (if any) */
+		public void add(Term term) {
+			if (term == null)
+				return;
+			else if (term.isPattern())
+				mPatterns.add(term);
+			else if (mTerms.size() < mFrontierSize)
+				mTerms.add(term);
+			else if (mTerms.comparator().compare(term, mTerms.peek()) > 0) {
+				mTerms.poll();
+				mTerms.add(term);
+			}
+		}
+	}
+
+	/*
+	 * ------------------------------------------------------------------------
+	 * DISPLAY SETs & GETs
+	 * ------------------------------------------------------------------------
+	 */
+
+	/** GET of maxDegree to Display */
+	public int getMaxDegree() {
+		return mMaxDegree;
+	}
+
+	/** SET of maxDegree to Display */
+	public void setMaxDegree(int maxDegree) {
+		this.mMaxDegree = maxDegree;
+	}
+
+	/** GET of frontierSize to Display */
+	public int getFrontierSize() {
+		return mFrontierSize;
+	}
+
+	/** SET of frontierSize to Display */
+	public void setFrontierSize(int frontierSize) {
+		this.mFrontierSize = frontierSize;
+	}
+
+	/*
+	 * ----------------------------------------------------------------------
+	 * DISPLAY INFORMATIONS & TIP TEXTs
+	 * ----------------------------------------------------------------------
+	 */
+
+	/** information of the Algorithm */
+	public String globalInfo() {
+		return "Enumerates the prime patterns of degree up to a given maximum, bottom-up in the "
+				+ "classic LAD style. Terms are extended one literal at a time; a term is a pattern "
+				+ "once its purity reaches the minimum purity (from the main LAD classifier), and "
+				+ "only terms whose sub-terms are not patterns are considered, so every pattern is "
+				+ "prime. The number of terms kept from one degree to the next is bounded.";
+	}
+
+	/** maxDegree Tip Text */
+	public String maxDegreeTipText() {
+		return "Maximum number of literals of a pattern.";
+	}
+
+	/** frontierSize Tip Text */
+	public String frontierSizeTipText() {
+		return "Maximum number of non-pattern terms extended from one degree to the next (the ones "
+				+ "covering more observations of the class are kept). It bounds time and memory.";
+	}
+
+	/*
+	 * ----------------------------------------------------------------------
+	 * OPTIONS METHODS
+	 * ----------------------------------------------------------------------
+	 */
+
+	@Override
+	public String[] getOptions() {
+		Vector<String> options = new Vector<String>();
+
+		options.add("-dg");
+		options.add("" + getMaxDegree());
+		options.add("-fs");
+		options.add("" + getFrontierSize());
+
+		return (String[]) options.toArray(new String[options.size()]);
+	}
+
+	@Override
+	public void setOptions(String[] options) throws Exception {
+		// Looking for Maximum Degree
+		String maxDegree = Utils.getOption("dg", options);
+		if (maxDegree.length() != 0) {
+			setMaxDegree(Integer.parseInt(maxDegree));
+		}
+
+		// Looking for Frontier Size
+		String frontierSize = Utils.getOption("fs", options);
+		if (frontierSize.length() != 0) {
+			setFrontierSize(Integer.parseInt(frontierSize));
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Enumeration listOptions() {
+		Vector<Option> newVector = new Vector<Option>(2);
+
+		newVector.addElement(new Option("\tMaximum Degree. Maximum number of literals of a pattern.\n"
+				+ "\t(Default = 3)\n", "dg", 1, "-dg <max_degree>"));
+
+		newVector.addElement(new Option("\tFrontier Size. Maximum number of non-pattern terms extended\n"
+				+ "\tfrom one degree to the next. (Default = 5000)\n", "fs", 1, "-fs <frontier_size>"));
+
+		return newVector.elements();
+	}
+}
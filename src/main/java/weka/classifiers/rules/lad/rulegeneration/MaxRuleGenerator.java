@@ -1,14 +1,21 @@
 package weka.classifiers.rules.lad.rulegeneration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.Random;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
 
+import weka.classifiers.rules.lad.core.BinaryColumns;
 import weka.classifiers.rules.lad.core.BinaryData;
 import weka.classifiers.rules.lad.core.BinaryInstance;
 import weka.classifiers.rules.lad.core.BinaryRule;
 import weka.classifiers.rules.lad.core.Literal;
+import weka.classifiers.rules.lad.util.ThreadPool;
 import weka.core.Option;
+import weka.core.Statistics;
+import weka.core.Utils;
 
 /**
  * Class MaxRuleGenerator (Max pattern rule generator).
@@ -17,24 +24,211 @@ import weka.core.Option;
  * @author Tiberius Bonates
  * 
  * @since Mar 27, 2014
- * @version 1.0
+ * @version 1.2
  */
 public class MaxRuleGenerator extends RuleGenerator {
 
 	/** SERIAL ID */
 	private static final long serialVersionUID = 8175941261292479958L;
 
+	/* Parameters */
+	private int mSeedCoverage = 0;
+	private int mSeedOrder = NATURAL;
+	private int mSampleSize = 0;
+	private double mConfidence = 0.95;
+
+	/* Seed orders */
+	public final static int NATURAL = 0;
+	public final static int HARDEST_FIRST = 1;
+
+	/* Approximate mode: compact table of the sample and its members */
+	private BinaryColumns mSample;
+	private long[] mSampled;
+	private double mQuantile;
+
+	/* Auxiliary */
+	private final static int BATCH = 64;
+	private final static int SAMPLE_SEED = 1;
+
 	@Override
 	public void fit(BinaryData trainingData) {
 		mData = trainingData;
+		mSample = null;
+
+		// Approximate mode
+		if (mSampleSize > 0 && mSampleSize < mData.numInstances()) {
+			sample();
+			mQuantile = Statistics.normalInverse(mConfidence);
+		}
+
+		ForkJoinPool pool = ThreadPool.create(mNumThreads);
+
+		// One mismatch counter per worker thread
+		ThreadLocal<MismatchCounter> counters = new ThreadLocal<MismatchCounter>() {
+			@Override
+			protected MismatchCounter initialValue() {
+				return new MismatchCounter(mSample == null ? mData.getColumns() : mSample, mData.numCutpoints());
+			}
+		};
+
+		try {
+			int[] seeds = seedOrder(pool);
+
+			if (mSeedCoverage == 0) {
+				expand(pool, counters, seeds, false);
+			} else {
+				// Seeds are expanded in batches; a seed is skipped when the rules of
+				// the previous batches already cover it enough times
+				int[] coverage = new int[mData.numInstances()];
+
+				for (int from = 0; from < seeds.length; from += BATCH) {
+					int[] batch = new int[Math.min(BATCH, seeds.length - from)];
+					int size = 0;
+
+					for (int i = from; i < from + batch.length; i++)
+						if (coverage[seeds[i]] < mSeedCoverage)
+							batch[size++] = seeds[i];
+
+					for (BinaryRule rule : expand(pool, counters, Arrays.copyOf(batch, size), true))
+						cover(rule, coverage);
+				}
+			}
+		} finally {
+			pool.shutdown();
+			mSample = null;
+			mSampled = null;
+		}
+	}
+
+	/**
+	 * Stratified sample of the training data: every class keeps its share of the
+	 * sample size (at least one instance). The sampled instances get a table of
+	 * their own, so shrinking a rule costs as many words as the sample needs.
+	 */
+	private void sample() {
+		Random random = new Random(SAMPLE_SEED);
+		mSampled = new long[BinaryColumns.words(mData.numInstances())];
+
+		for (int label = 0; label < mData.numClassLabels(); label++) {
+			ArrayList<BinaryInstance> instances = new ArrayList<BinaryInstance>();
+
+			for (BinaryInstance instance : mData.getInstances())
+				if (instance.instanceClass() == label)
+					instances.add(instance);
+
+			int size = (int) Math.max(1, Math.round(mSampleSize * instances.size() / (double) mData.numInstances()));
+
+			// Partial shuffle: the first positions are kept
+			for (int i = 0; i < Math.min(size, instances.size()); i++)
+				instances.set(i, instances.set(i + random.nextInt(instances.size() - i), instances.get(i)));
+
+			for (int i = 0; i < Math.min(size, instances.size()); i++)
+				BinaryColumns.set(mSampled, instances.get(i).index());
+		}
+
+		// Rows of the sample, in the order of the training data
+		ArrayList<BinaryInstance> rows = new ArrayList<BinaryInstance>();
+
+		for (int j = BinaryColumns.nextSetBit(mSampled, 0); j >= 0; j = BinaryColumns.nextSetBit(mSampled, j + 1))
+			rows.add(mData.getInstance(j));
+
+		mSample = new BinaryColumns(rows, mData.getCutpoints(), mData.numClassLabels());
+	}
+
+	/**
+	 * Expands a set of seeds in parallel and adds their rules in the order of the
+	 * seeds. If requested, returns the rules that were actually accepted.
+	 */
+	private ArrayList<BinaryRule> expand(ForkJoinPool pool, ThreadLocal<MismatchCounter> counters, int[] seeds,
+			boolean accepted) {
+		// One slot per seed so the rules keep the sequential order
+		final BinaryRule[] rules = new BinaryRule[seeds.length];
+
+		ThreadPool.forEach(pool, seeds.length, i -> rules[i] = expand(mData.getInstance(seeds[i]), counters.get()));
+
+		ArrayList<BinaryRule> added = new ArrayList<BinaryRule>();
+
+		for (BinaryRule rule : rules) {
+			if (rule != null) {
+				int size = getRules().size();
+				addRule(rule);
+
+				if (accepted && getRules().size() > size)
+					added.add(rule);
+			}
+		}
+
+		return added;
+	}
+
+	/** Counts a new rule for every instance of its own class that it covers */
+	private void cover(BinaryRule rule, int[] coverage) {
+		BinaryData covered = getRuleCoverage(mData, rule.getLiterais(), rule.getLabel());
+
+		for (BinaryInstance instance : covered.getInstances())
+			if (instance.instanceClass() == rule.getLabel())
+				coverage[instance.index()]++;
+	}
+
+	/**
+	 * Order in which the seeds are expanded. Hardest first sorts them by the
+	 * Hamming distance to the nearest instance of another class, closest first.
+	 * The distances are found in parallel, scanning the other classes only.
+	 */
+	private int[] seedOrder(ForkJoinPool pool) {
+		int numInstances = mData.numInstances();
+		int[] seeds = new int[numInstances];
+
+		for (int i = 0; i < numInstances; i++)
+			seeds[i] = i;
+
+		if (mSeedOrder == HARDEST_FIRST) {
+			final ArrayList<BinaryInstance> instances = mData.getInstances();
+			final long[] keys = new long[numInstances];
+
+			// Instances of every class
+			final int[][] classes = new int[mData.numClassLabels()][];
+			int[] sizes = new int[classes.length];
+
+			for (BinaryInstance instance : instances)
+				sizes[(int) instance.instanceClass()]++;
+
+			for (int c = 0; c < classes.length; c++)
+				classes[c] = new int[sizes[c]];
+
+			Arrays.fill(sizes, 0);
+			for (int i = 0; i < numInstances; i++) {
+				int c = (int) instances.get(i).instanceClass();
+				classes[c][sizes[c]++] = i;
+			}
+
+			ThreadPool.forEach(pool, numInstances, i -> {
+				BinaryInstance instance = instances.get(i);
+				int distance = Integer.MAX_VALUE;
+
+				for (int c = 0; c < classes.length && distance > 0; c++) {
+					if (c == instance.instanceClass())
+						continue;
+
+					for (int j = 0; j < classes[c].length && distance > 0; j++)
+						distance = Math.min(distance, instance.distance(instances.get(classes[c][j])));
+				}
+
+				// Ties are kept in the natural order
+				keys[i] = ((long) distance << 32) | i;
+			});
+
+			Arrays.sort(keys);
 
-		for (int i = 0; i < mData.numInstances(); i++) {
-			expand(mData.getInstance(i));
+			for (int i = 0; i < numInstances; i++)
+				seeds[i] = (int) keys[i];
 		}
+
+		return seeds;
 	}
 
 	/** Method for building decision rules */
-	private void expand(BinaryInstance instance) {
+	private BinaryRule expand(BinaryInstance instance, MismatchCounter counter) {
 		//
 		double label = instance.instanceClass();
 
@@ -42,145 +236,149 @@ public class MaxRuleGenerator extends RuleGenerator {
 		ArrayList<Literal> rule = new ArrayList<Literal>();
 
 		//
-		for (int i = 0; i < instance.numAttributes(); i++) {
+		for (int i = 0; i < instance.numAttributes(); i++)
 			if (!instance.isMissingAttribute(i))
-				if (instance.isNumeric(i))
-					rule.add(new Literal(i, instance.getBinAt(i)));
-				else
-					rule.add(new Literal(i, instance.getValueAt(i)));
-		}
+				rule.add(new Literal(i, instance.getBinAt(i)));
+
+		// Table on which the rule is shrunk: a seed out of the sample is counted apart
+		BinaryColumns columns = mSample == null ? mData.getColumns() : mSample;
+		long[] all = mSample == null ? mData.getMask() : mSample.full();
+		int seedWeight = mSample == null || BinaryColumns.get(mSampled, instance.index()) ? 0 : instance.weight();
 
 		// Coverage
-		BinaryData covered = getRuleCoverage(mData, rule, label);
-		BinaryData uncovered = new BinaryData(mData);
+		long[] covered = all.clone();
+
+		for (Literal literal : rule)
+			columns.and(covered, literal, label);
 
-		for (BinaryInstance i : covered.getInstances())
-			uncovered.remove(i);
+		// Violated literals of every uncovered instance
+		counter.reset(all, covered, rule, label, seedWeight);
 
 		// Enabling Safety Mode
-		boolean safetyMode = covered.getPurity(label) < mMinimumPurity; // Basically always true
+		boolean safetyMode = counter.getPurity() < mMinimumPurity; // Basically always true
 		double purity = mMinimumPurity;
 
 		// Maximization
 		while (rule.size() > 0) {
 
-			Literal bestLiteral = null;
-			BinaryData bestCoverage = null;
+			int bestLiteral = -1;
 			double bestDiscrepancy = 0;
 
-			// Rule copy
-			ArrayList<Literal> literals = new ArrayList<Literal>(rule);
+			for (int i = 0; i < rule.size(); i++) {
+				// Pruning: not even the bound reaches the coverage of the best literal
+				if (bestLiteral >= 0 && counter.getCoverageBound(i) < counter.getMergedCoverage(bestLiteral))
+					continue;
 
-			for (Literal literal : literals) {
-				// Shortening rule
-				rule.remove(literal);
+				// Coverage and discrepancy of the shortened rule
+				counter.evaluate(i);
 
-				//
-				BinaryData literalCoverage = getRuleCoverage(uncovered, rule, label);
+				double literalPurity = mSample == null ? counter.getMergedPurity(i)
+						: counter.getMergedPurityBound(i, mQuantile);
+				double bestPurity = bestLiteral < 0 ? counter.getPurity() : counter.getMergedPurity(bestLiteral);
 
 				// Testing
-				if ((covered.getMergedPurity(literalCoverage, label) >= purity)
-						|| ((safetyMode) && (Math.abs(covered.getMergedPurity(literalCoverage, label)
-								- covered.getMergedPurity(bestCoverage, label)) < 1.0E4))) {
-
-//					// Try to increase purity of the current rule
-//					if (covered.getMergedPurity(literalCoverage, label) >= purity) {
-//						purity = Math.min(1, purity + (1 - purity) / 10);
-//					}
+				if ((literalPurity >= purity)
+						|| ((safetyMode) && (Math.abs(literalPurity - bestPurity) < 1.0E4))) {
 
 					// Calculating discrepancy
-					double literalDiscrepancy = discrepancy(uncovered, rule, label);
+					double literalDiscrepancy = counter.getDiscrepancy(i);
 
 					// Decision
-					if (bestCoverage == null
-							|| covered.getMergedCoverage(literalCoverage, label) > covered
-									.getMergedCoverage(bestCoverage, label)
-							|| (covered.getMergedCoverage(literalCoverage, label) == covered
-									.getMergedCoverage(bestCoverage, label) && literalDiscrepancy < bestDiscrepancy)) {
-
-						bestLiteral = literal;
-						bestCoverage = literalCoverage;
-						bestDiscrepancy = literalDiscrepancy;
+					if (bestLiteral < 0 || counter.getMergedCoverage(i) > counter.getMergedCoverage(bestLiteral)
+							|| (counter.getMergedCoverage(i) == counter.getMergedCoverage(bestLiteral)
+									&& literalDiscrepancy < bestDiscrepancy)) {
 
+						bestLiteral = i;
+						bestDiscrepancy = literalDiscrepancy;
 					}
 				}
-
-				// Reinsert the "Literal"
-				rule.add(literal);
 			}
 
 			// Break Conditions
-			if (bestLiteral == null) {
+			if (bestLiteral < 0)
 				break;
-			} else {
-				rule.remove(bestLiteral);
-				covered.add(bestCoverage);
-
-				for (BinaryInstance inst : bestCoverage.getInstances())
-					uncovered.remove(inst);
 
-			}
+			counter.remove(bestLiteral);
 		}
 
-		if (rule.size() > 0) {
-			addRule(new BinaryRule(rule, label, covered.getPurity(label)));
-		}
+		if (rule.size() == 0)
+			return null;
+
+		// Exact purity on the full data for a rule shrunk on the sample
+		if (mSample != null)
+			return new BinaryRule(rule, label, getRuleCoverage(mData, rule, label).getPurity(label));
+
+		return new BinaryRule(rule, label, counter.getPurity());
 	}
 
 	/** Makes the split using a list of literals */
 	private BinaryData getRuleCoverage(BinaryData data, ArrayList<Literal> rule, double label) {
-		//
-		BinaryData covered = new BinaryData(data.numClassLabels());
+		return data.cover(rule, label);
+	}
 
-		for (BinaryInstance instance : data.getInstances()) {
-			boolean cover = true;
+	@Override
+	public String toString() {
+		return getRules().toString();
+	}
 
-			for (Literal literal : rule) {
-				if (instance.isMissingAttribute(literal.getAtt())) {
-					if (instance.instanceClass() == label) {
-						cover = false;
-						break;
-					}
-				} else if (!literal.isIn(instance)) {
-					cover = false;
-					break;
-				}
-			}
+	@Override
+	public void checkForExceptions() throws Exception {
+		super.checkForExceptions();
+
+		if (mSeedCoverage < 0)
+			throw new Exception("Rule Generator: Seed Coverage must be greater than or equal to 0.");
+		else if (mSeedOrder != NATURAL && mSeedOrder != HARDEST_FIRST)
+			throw new Exception("Rule Generator: Seed Order must be 0 (natural) or 1 (hardest first).");
+		else if (mSampleSize < 0)
+			throw new Exception("Rule Generator: Sample Size must be greater than or equal to 0.");
+		else if (mConfidence <= 0.5 || mConfidence >= 1.0)
+			throw new Exception("Rule Generator: Confidence must be greater than 0.5 and less than 1.0.");
+	}
 
-			if (cover)
-				covered.add(instance);
-		}
+	/*
+	 * ------------------------------------------------------------------------
+	 * DISPLAY SETs & GETs
+	 * ------------------------------------------------------------------------
+	 */
 
-		return covered;
+	/** GET of seedCoverage to Display */
+	public int getSeedCoverage() {
+		return mSeedCoverage;
 	}
 
-	/** Calculates discrepancy */
-	private double discrepancy(BinaryData data, ArrayList<Literal> rule, double label) {
-		double sameClassDistance = 0.0;
-		double otherClassDistance = 0.0;
+	/** SET of seedCoverage to Display */
+	public void setSeedCoverage(int seedCoverage) {
+		this.mSeedCoverage = seedCoverage;
+	}
 
-		for (BinaryInstance instance : data.getInstances()) {
-			for (Literal literal : rule)
-				if (instance.isMissingAttribute(literal.getAtt())) {
-					if (instance.instanceClass() == label)
-						sameClassDistance += 1;
+	/** GET of seedOrder to Display */
+	public int getSeedOrder() {
+		return mSeedOrder;
+	}
 
-				} else if (!literal.isIn(instance)) {
-					if (instance.instanceClass() == label)
-						sameClassDistance += 1;
-					else
-						otherClassDistance += 1;
-				}
+	/** SET of seedOrder to Display */
+	public void setSeedOrder(int seedOrder) {
+		this.mSeedOrder = seedOrder;
+	}
 
-		}
+	/** GET of sampleSize to Display */
+	public int getSampleSize() {
+		return mSampleSize;
+	}
 
-		return (sameClassDistance / (1 + data.getCoverage(label)))
-				/ (otherClassDistance / (1 + data.numInstances() - data.getCoverage(label)));
+	/** SET of sampleSize to Display */
+	public void setSampleSize(int sampleSize) {
+		this.mSampleSize = sampleSize;
 	}
 
-	@Override
-	public String toString() {
-		return getRules().toString();
+	/** GET of confidence to Display */
+	public double getConfidence() {
+		return mConfidence;
+	}
+
+	/** SET of confidence to Display */
+	public void setConfidence(double confidence) {
+		this.mConfidence = confidence;
 	}
 
 	/*
@@ -200,6 +398,31 @@ public class MaxRuleGenerator extends RuleGenerator {
 				+ "(from the main LAD classifier).";
 	}
 
+	/** seedCoverage Tip Text */
+	public String seedCoverageTipText() {
+		return "An observation is not used as a seed if it is already covered by this many "
+				+ "accepted patterns of its own class (0 uses every observation).";
+	}
+
+	/** seedOrder Tip Text */
+	public String seedOrderTipText() {
+		return "Order in which the observations are used as seeds: 0 for the natural order, "
+				+ "1 for the observations closest to another class first.";
+	}
+
+	/** sampleSize Tip Text */
+	public String sampleSizeTipText() {
+		return "Approximate mode: patterns are maximized on a stratified sample of this many "
+				+ "observations, and only the final pattern is checked on the whole data (0 "
+				+ "disables the sampling).";
+	}
+
+	/** confidence Tip Text */
+	public String confidenceTipText() {
+		return "Approximate mode: confidence level of the lower bound on the purity estimated on the "
+				+ "sample.";
+	}
+
 	/*
 	 * ----------------------------------------------------------------------
 	 * OPTIONS METHODS
@@ -208,16 +431,66 @@ public class MaxRuleGenerator extends RuleGenerator {
 
 	@Override
 	public String[] getOptions() {
-		return new String[0];
+		Vector<String> options = new Vector<String>();
+
+		options.add("-sc");
+		options.add("" + getSeedCoverage());
+		options.add("-so");
+		options.add("" + getSeedOrder());
+		options.add("-ss");
+		options.add("" + getSampleSize());
+		options.add("-cf");
+		options.add("" + getConfidence());
+
+		return (String[]) options.toArray(new String[options.size()]);
 	}
 
 	@Override
 	public void setOptions(String[] options) throws Exception {
+		// Looking for Seed Coverage
+		String seedCoverage = Utils.getOption("sc", options);
+		if (seedCoverage.length() != 0) {
+			setSeedCoverage(Integer.parseInt(seedCoverage));
+		}
+
+		// Looking for Seed Order
+		String seedOrder = Utils.getOption("so", options);
+		if (seedOrder.length() != 0) {
+			setSeedOrder(Integer.parseInt(seedOrder));
+		}
+
+		// Looking for Sample Size
+		String sampleSize = Utils.getOption("ss", options);
+		if (sampleSize.length() != 0) {
+			setSampleSize(Integer.parseInt(sampleSize));
+		}
+
+		// Looking for Confidence
+		String confidence = Utils.getOption("cf", options);
+		if (confidence.length() != 0) {
+			setConfidence(Double.parseDouble(confidence));
+		}
 	}
 
 	@SuppressWarnings("rawtypes")
 	@Override
 	public Enumeration listOptions() {
-		return new Vector<Option>(0).elements();
+		Vector<Option> newVector = new Vector<Option>(4);
+
+		newVector.addElement(new Option("\tSeed Coverage. An observation is not used as a seed if it is\n"
+				+ "\talready covered by this many accepted patterns of its own\n"
+				+ "\tclass. (Default = 0, every observation is used)\n", "sc", 1, "-sc <seed_coverage>"));
+
+		newVector.addElement(new Option("\tSeed Order. 0 for the natural order, 1 for the observations\n"
+				+ "\tclosest to another class first. (Default = 0)\n", "so", 1, "-so <seed_order>"));
+
+		newVector.addElement(new Option("\tSample Size. Patterns are maximized on a stratified sample of\n"
+				+ "\tthis many observations and checked on the whole data.\n"
+				+ "\t(Default = 0, no sampling)\n", "ss", 1, "-ss <sample_size>"));
+
+		newVector.addElement(new Option("\tConfidence. Confidence level of the lower bound on the purity\n"
+				+ "\testimated on the sample. (Default = 0.95)\n", "cf", 1, "-cf <confidence>"));
+
+		return newVector.elements();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package weka.classifiers.rules.lad.rulegeneration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import weka.classifiers.rules.lad.core.BinaryColumns;
+import weka.classifiers.rules.lad.core.Literal;
+
+/**
+ * Class MismatchCounter
+ * 
+ * Incremental engine for shrinking a rule one literal at a time. For every
+ * instance not covered by the rule it keeps the number of rule literals the
+ * instance violates. The instances covered after dropping a literal are then
+ * the ones violating that literal only, and the discrepancy of the shortened
+ * rule is the total number of violations minus the violations of that literal.
+ * Both come out of a single pass over the uncovered instances per literal.
+ * 
+ * The number of same class instances violating a literal never grows while the
+ * rule shrinks, so the last value computed for it bounds the coverage gained by
+ * dropping that literal (see {@link #getCoverageBound(int)}).
+ * 
+ * The counter works on any column-major table, e.g. the compact one of a
+ * sample, so its cost follows the number of rows of that table.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.1
+ */
+public class MismatchCounter {
+
+	/* Variables */
+	private BinaryColumns mColumns;
+	private ArrayList<Literal> mLiterals;
+	private long[] mLabel;
+	private double mLabelValue;
+
+	/* Covered instances */
+	private int mCoveredSize;
+	private int mCoveredLabel;
+
+	/* Uncovered instances */
+	private long[] mUncovered;
+	private long[] mSingles;
+	private int[] mMismatches;
+	private int mUncoveredSize;
+	private int mUncoveredLabel;
+	private long mSameDistance;
+	private long mOtherDistance;
+
+	/* Evaluation of every literal (mSameFailures is also the bound) */
+	private int[] mSameFailures;
+	private int[] mOtherFailures;
+	private int[] mSameGains;
+	private int[] mGains;
+
+	/* Auxiliary */
+	private long[] mBuffer;
+
+	/** Main Constructor: allocates the buffers used for a given table */
+	public MismatchCounter(BinaryColumns columns, int numCutpoints) {
+		mColumns = columns;
+
+		mUncovered = new long[mColumns.numWords()];
+		mSingles = new long[mColumns.numWords()];
+		mBuffer = new long[mColumns.numWords()];
+		mMismatches = new int[mColumns.numInstances()];
+
+		mSameFailures = new int[numCutpoints];
+		mOtherFailures = new int[numCutpoints];
+		mSameGains = new int[numCutpoints];
+		mGains = new int[numCutpoints];
+	}
+
+	/**
+	 * Starts counting the violations of a new rule over the instances of the
+	 * table flagged in a mask, given the ones the rule covers. The seed weight
+	 * counts a seed covered by the rule that is not part of the table.
+	 */
+	public void reset(long[] all, long[] covered, ArrayList<Literal> rule, double label, int seedWeight) {
+		mLiterals = rule;
+		mLabel = mColumns.getLabel(label);
+		mLabelValue = label;
+
+		mCoveredSize = mColumns.count(covered) + seedWeight;
+		mCoveredLabel = mColumns.count(covered, label) + seedWeight;
+
+		mSameDistance = 0;
+		mOtherDistance = 0;
+
+		Arrays.fill(mSingles, 0);
+		Arrays.fill(mMismatches, 0);
+
+		for (int k = 0; k < all.length; k++)
+			mUncovered[k] = all[k] & ~covered[k];
+
+		mUncoveredSize = mColumns.count(mUncovered);
+		mUncoveredLabel = mColumns.count(mUncovered, label);
+
+		// Counting violations
+		for (int i = 0; i < mLiterals.size(); i++) {
+			mColumns.cover(mBuffer, mLiterals.get(i), label);
+			mSameFailures[i] = 0;
+
+			for (int k = 0; k < mBuffer.length; k++) {
+				long word = mUncovered[k] & ~mBuffer[k];
+
+				while (word != 0) {
+					int j = (k << 6) + Long.numberOfTrailingZeros(word);
+					word &= word - 1;
+
+					mMismatches[j]++;
+
+					if (BinaryColumns.get(mLabel, j)) {
+						mSameDistance += mColumns.weight(j);
+						mSameFailures[i] += mColumns.weight(j);
+					} else {
+						mOtherDistance += mColumns.weight(j);
+					}
+				}
+			}
+		}
+
+		for (int j = BinaryColumns.nextSetBit(mUncovered, 0); j >= 0; j = BinaryColumns.nextSetBit(mUncovered, j + 1))
+			if (mMismatches[j] == 1)
+				BinaryColumns.set(mSingles, j);
+	}
+
+	/**
+	 * Evaluates the removal of a literal: violations by same and other class
+	 * instances and instances covered once the literal is dropped.
+	 */
+	public void evaluate(int index) {
+		mColumns.cover(mBuffer, mLiterals.get(index), mLabelValue);
+
+		int sameFailures = 0, otherFailures = 0, sameGains = 0, gains = 0;
+
+		for (int k = 0; k < mBuffer.length; k++) {
+			long failures = mUncovered[k] & ~mBuffer[k];
+
+			if (failures == 0)
+				continue;
+
+			long singles = mSingles[k] & failures;
+
+			sameFailures += mColumns.weigh(failures & mLabel[k], k);
+			otherFailures += mColumns.weigh(failures & ~mLabel[k], k);
+			sameGains += mColumns.weigh(singles & mLabel[k], k);
+			gains += mColumns.weigh(singles, k);
+		}
+
+		mSameFailures[index] = sameFailures;
+		mOtherFailures[index] = otherFailures;
+		mSameGains[index] = sameGains;
+		mGains[index] = gains;
+	}
+
+	/** Drops a literal from the rule, updating the counts of its violators */
+	public void remove(int index) {
+		mColumns.cover(mBuffer, mLiterals.get(index), mLabelValue);
+
+		for (int k = 0; k < mBuffer.length; k++) {
+			long word = mUncovered[k] & ~mBuffer[k];
+
+			while (word != 0) {
+				int j = (k << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+
+				boolean same = BinaryColumns.get(mLabel, j);
+				int weight = mColumns.weight(j);
+
+				if (same)
+					mSameDistance -= weight;
+				else
+					mOtherDistance -= weight;
+
+				if (--mMismatches[j] == 1) {
+					BinaryColumns.set(mSingles, j);
+				} else if (mMismatches[j] == 0) {
+					BinaryColumns.clear(mSingles, j);
+					BinaryColumns.clear(mUncovered, j);
+
+					mCoveredSize += weight;
+					mUncoveredSize -= weight;
+
+					if (same) {
+						mCoveredLabel += weight;
+						mUncoveredLabel -= weight;
+					}
+				}
+			}
+		}
+
+		// Keeping the bounds aligned with the literals
+		System.arraycopy(mSameFailures, index + 1, mSameFailures, index, mLiterals.size() - index - 1);
+		mLiterals.remove(index);
+	}
+
+	/** GET of the current rule */
+	public ArrayList<Literal> getLiterals() {
+		return mLiterals;
+	}
+
+	/** Stats: Purity of the current rule */
+	public double getPurity() {
+		return mCoveredSize == 0 ? 0 : (mCoveredLabel / (double) mCoveredSize);
+	}
+
+	/** Stats: Purity of the rule without a literal */
+	public double getMergedPurity(int index) {
+		return (mCoveredSize + mGains[index]) == 0 ? 0
+				: (mCoveredLabel + mSameGains[index]) / (double) (mCoveredSize + mGains[index]);
+	}
+
+	/**
+	 * Stats: Wilson lower bound on the purity of the rule without a literal, for
+	 * a normal quantile z (the purity itself if z is 0)
+	 */
+	public double getMergedPurityBound(int index, double z) {
+		double n = mCoveredSize + mGains[index];
+		double p = getMergedPurity(index);
+
+		if (n == 0 || z == 0)
+			return p;
+
+		double z2 = z * z;
+		return (p + z2 / (2 * n) - z * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n))) / (1 + z2 / n);
+	}
+
+	/** Stats: Coverage of the rule without a literal */
+	public int getMergedCoverage(int index) {
+		return mCoveredLabel + mSameGains[index];
+	}
+
+	/**
+	 * Stats: Upper bound on the coverage of the rule without a literal, valid
+	 * even if the literal was not evaluated since the last removals
+	 */
+	public int getCoverageBound(int index) {
+		return mCoveredLabel + mSameFailures[index];
+	}
+
+	/** Stats: Discrepancy of the rule without a literal */
+	public double getDiscrepancy(int index) {
+		double sameClassDistance = mSameDistance - mSameFailures[index];
+		double otherClassDistance = mOtherDistance - mOtherFailures[index];
+
+		return (sameClassDistance / (1 + mUncoveredLabel))
+				/ (otherClassDistance / (1 + mUncoveredSize - mUncoveredLabel));
+	}
+}
@@ -1,15 +1,15 @@
 package weka.classifiers.rules.lad.rulegeneration;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
 
 import weka.classifiers.rules.lad.core.BinaryData;
-import weka.classifiers.rules.lad.core.BinaryInstance;
 import weka.classifiers.rules.lad.core.BinaryRule;
 import weka.classifiers.rules.lad.core.Literal;
+import weka.classifiers.rules.lad.util.ThreadPool;
 import weka.core.Option;
 import weka.core.Utils;
 
@@ -27,64 +27,68 @@ public class RandomRuleGenerator extends RuleGenerator {
 	/** SERIAL ID */
 	private static final long serialVersionUID = 1448802467208122870L;
 
-	/** FINALS */
-	private static final int NUMERIC = -1;
-
 	/* Parameters */
 	private int mNumRules = 250;
 	private int mRandomSeed = 1;
 	private int mNumRandomFeatures = 10;
 	private double mMinRelativeCoverageOwnClass = 0.01;
-	private int[] mBinaryAttributes; // TRUE if Binary Attribute / FALSE if nominal
-
-	/* Variables */
-	private Random mRandomObject;
-
-	/** Constructor */
-	public RandomRuleGenerator() {
-		this.mRandomObject = new Random();
-	}
 
 	@Override
 	public void fit(BinaryData data) {
 		mData = data;
-		mRandomObject.setSeed(mRandomSeed);
 
-		mBinaryAttributes = new int[data.numCutpoints()];
-		int i = 0;
+		// One random stream per attempt, split in the order of the attempts
+		final int numLabels = data.numClassLabels();
+		final SplittableRandom[] streams = new SplittableRandom[mNumRules * numLabels];
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		final ArrayList<BinaryRule>[] rules = new ArrayList[streams.length];
 
-		for (i = 0; i < mBinaryAttributes.length; i++) {
-			if (data.getAttribute(i).isNumeric())
-				mBinaryAttributes[i] = NUMERIC;
-			else
-				mBinaryAttributes[i] = data.getAttribute(i).numValues();
+		SplittableRandom random = new SplittableRandom(mRandomSeed);
+		for (int i = 0; i < streams.length; i++)
+			streams[i] = random.split();
+
+		ForkJoinPool pool = ThreadPool.create(mNumThreads);
+
+		try {
+			ThreadPool.forEach(pool, streams.length, t -> rules[t] = expand(t % numLabels, streams[t]));
+		} finally {
+			pool.shutdown();
 		}
 
-		for (i = 0; i < this.mNumRules; i++)
-			for (int j = 0; j < data.numClassLabels(); j++) {
-				expand(j);
-			}
+		// Rules are added in the order of the attempts
+		for (ArrayList<BinaryRule> attempt : rules)
+			for (BinaryRule rule : attempt)
+				addRule(rule);
 	}
 
 	/** Method for building decision rules */
-	private void expand(final double label) {
-		// Indexes
-		ArrayList<Integer> indexes = new ArrayList<Integer>(mBinaryAttributes.length);
-		for (int i = 0; i < mBinaryAttributes.length; i++)
-			indexes.add(i);
+	private ArrayList<BinaryRule> expand(final double label, SplittableRandom random) {
+		ArrayList<BinaryRule> rules = new ArrayList<BinaryRule>();
+
+		// Indexes: partial shuffle, only the sampled positions are drawn
+		int[] indexes = new int[mData.numCutpoints()];
+		for (int i = 0; i < indexes.length; i++)
+			indexes[i] = i;
 
-		Collections.shuffle(indexes, mRandomObject);
+		int numFeatures = Math.min(indexes.length, mNumRandomFeatures);
+
+		for (int i = 0; i < numFeatures; i++) {
+			int j = i + random.nextInt(indexes.length - i);
+			int aux = indexes[i];
+
+			indexes[i] = indexes[j];
+			indexes[j] = aux;
+		}
 
 		// Rule
 		ArrayList<Literal> rule = new ArrayList<Literal>();
 		ArrayList<Literal> literals = new ArrayList<Literal>();
 
 		// Random Rule
-		for (Integer i : indexes.subList(0, Math.min(indexes.size(), mNumRandomFeatures))) {
-			if (mBinaryAttributes[i] == NUMERIC)
-				literals.add(new Literal(i, mRandomObject.nextBoolean()));
-			else
-				literals.add(new Literal(i, mRandomObject.nextInt(mBinaryAttributes[i])));
+		for (int k = 0; k < numFeatures; k++) {
+			int i = indexes[k];
+
+			literals.add(new Literal(i, random.nextBoolean()));
 		}
 
 		// Coverage: Considering full coverage of the empty rule
@@ -130,7 +134,7 @@ public class RandomRuleGenerator extends RuleGenerator {
 					// purity = covered.getPurity(label);
 
 					// Adding rule
-					addRule(new BinaryRule(rule, label, purity));
+					rules.add(new BinaryRule(rule, label, purity));
 
 					// Updating round purity
 					purity = purity + (1 - purity) / 10;
@@ -141,6 +145,8 @@ public class RandomRuleGenerator extends RuleGenerator {
 			} else
 				break;
 		}
+
+		return rules;
 	}
 
 	/**
@@ -154,19 +160,7 @@ public class RandomRuleGenerator extends RuleGenerator {
 	 * </ol>
 	 */
 	private BinaryData getLiteralCoverage(BinaryData data, Literal literal, double label) {
-		//
-		BinaryData covered = new BinaryData(data.numClassLabels());
-
-		for (BinaryInstance instance : data.getInstances()) {
-			if (instance.isMissingAttribute(literal.getAtt())) {
-				if (instance.instanceClass() != label)
-					covered.add(instance);
-			} else if (literal.isIn(instance)) {
-				covered.add(instance);
-			}
-		}
-
-		return covered;
+		return data.cover(literal, label);
 	}
 
 	@Override
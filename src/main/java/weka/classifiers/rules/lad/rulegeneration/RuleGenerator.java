@@ -3,6 +3,8 @@ package weka.classifiers.rules.lad.rulegeneration;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import weka.classifiers.rules.lad.core.BinaryData;
 import weka.classifiers.rules.lad.core.BinaryRule;
@@ -23,14 +25,17 @@ public abstract class RuleGenerator implements Serializable {
 
 	/* Parameters */
 	protected double mMinimumPurity = 0.85;
+	protected int mNumThreads = 1;
 
 	/* Variables */
 	protected BinaryData mData;
 	private ArrayList<BinaryRule> mBinaryRules;
+	private Set<BinaryRule> mRuleSet;
 
 	/** Main Constructor */
 	public RuleGenerator() {
 		this.mBinaryRules = new ArrayList<BinaryRule>();
+		this.mRuleSet = ConcurrentHashMap.newKeySet();
 	}
 
 	/** Rule generator abstract method */
@@ -41,6 +46,8 @@ public abstract class RuleGenerator implements Serializable {
 		if (mMinimumPurity <= 0.5 || mMinimumPurity > 1.0)
 			throw new Exception(
 					"Rule Generator: Minimum Purity must be greater than 0.5 and lest then or equal to 1.0.");
+		else if (mNumThreads < 0)
+			throw new Exception("Rule Generator: Number of threads must be greater than or equal to 0.");
 	}
 
 	/** SET of the Minimum Purity */
@@ -48,19 +55,26 @@ public abstract class RuleGenerator implements Serializable {
 		mMinimumPurity = purity;
 	}
 
+	/** SET of the number of threads (0 means all available processors) */
+	public void setNumThreads(int numThreads) {
+		mNumThreads = numThreads;
+	}
+
 	/** GET of the Array of Rules */
 	public ArrayList<BinaryRule> getRules() {
 		return mBinaryRules;
 	}
 
-	/** Adds a new rule */
+	/** Adds a new rule, unless it was already generated */
 	protected void addRule(BinaryRule rule) {
-		if (rule.getPurity() >= mMinimumPurity)
-			this.mBinaryRules.add(rule);
+		if (rule.getPurity() >= mMinimumPurity && this.mRuleSet.add(rule))
+			synchronized (mBinaryRules) {
+				this.mBinaryRules.add(rule);
+			}
 	}
 
 	protected boolean contains(BinaryRule rule) {
-		return this.mBinaryRules.contains(rule);
+		return this.mRuleSet.contains(rule);
 	}
 
 	/*
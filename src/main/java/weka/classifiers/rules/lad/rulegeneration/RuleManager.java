@@ -3,6 +3,7 @@ package weka.classifiers.rules.lad.rulegeneration;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 
 import weka.classifiers.AbstractClassifier;
 import weka.classifiers.rules.lad.binarization.CutpointSet;
@@ -41,10 +42,13 @@ public class RuleManager implements Serializable {
 		mRules = new ArrayList<NumericalRule>();
 		mCounts = new HashMap<Integer, Integer>();
 
+		// Different binary rules may still shorten to the same numerical rule
+		HashSet<NumericalRule> seen = new HashSet<NumericalRule>();
+
 		for (BinaryRule rule : rules) {
 			NumericalRule n = new NumericalRule(rule, cutpoints);
 
-			if (!mRules.contains(n)) {
+			if (seen.add(n)) {
 				mRules.add(n);
 				mCounts.put(n.getLabel(), mCounts.containsKey(n.getLabel()) ? mCounts.get(n.getLabel()) + 1 : 1);
 			}
@@ -0,0 +1,77 @@
+package weka.classifiers.rules.lad.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Class ThreadPool
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.1
+ */
+public class ThreadPool {
+
+	/** Number of threads actually used: 0 means all available processors */
+	public static int parallelism(int numThreads) {
+		return numThreads > 0 ? numThreads : Runtime.getRuntime().availableProcessors();
+	}
+
+	/** Creates a work-stealing pool with the given number of threads */
+	public static ForkJoinPool create(int numThreads) {
+		return new ForkJoinPool(parallelism(numThreads));
+	}
+
+	/**
+	 * Runs a task for every index in [0, size) on a pool, in blocks of
+	 * consecutive indices (a few blocks per thread)
+	 */
+	public static void forEach(ForkJoinPool pool, int size, IntConsumer task) {
+		int grain = Math.max(1, size / (8 * pool.getParallelism()));
+		pool.invoke(new Range(task, 0, size, grain));
+	}
+
+	/**
+	 * Class Range. Splits a range of indices among the threads of a pool.
+	 * 
+	 * @author Vaux Gomes
+	 * @author Tiberius Bonates
+	 * 
+	 * @since Oct 17, 2026
+	 * @version 1.0
+	 */
+	private static class Range extends RecursiveAction {
+
+		/** SERIAL ID */
+		private static final long serialVersionUID = -2916305617353512874L;
+
+		/* Variables */
+		private final IntConsumer mTask;
+		private final int mFrom;
+		private final int mTo;
+		private final int mGrain;
+
+		/** Main Constructor */
+		public Range(IntConsumer task, int from, int to, int grain) {
+			this.mTask = task;
+			this.mFrom = from;
+			this.mTo = to;
+			this.mGrain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (mTo - mFrom > mGrain) {
+				int middle = (mFrom + mTo) >>> 1;
+				invokeAll(new Range(mTask, mFrom, middle, mGrain), new Range(mTask, middle, mTo, mGrain));
+				return;
+			}
+
+			for (int i = mFrom; i < mTo; i++)
+				mTask.accept(i);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package weka.classifiers.rules.lad.binarization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * Class StreamingBinarizationTest
+ * 
+ * Checks the cutpoints of the sketch against the ones of {@link Binarization}:
+ * they are the same while no bins are joined, and on streams sorted by value a
+ * missed cutpoint lies between two cutpoints found with at most epsilon * n
+ * values between them.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.0
+ */
+public class StreamingBinarizationTest {
+
+	/* Auxiliary */
+	private final static double EPSILON = 0.01;
+
+	/** Few distinct values over several flushes: no bins are joined */
+	@Test
+	public void testFewDistinctValues() throws Exception {
+		for (long seed = 1; seed <= 5; seed++) {
+			Instances data = random(seed, 5000, 50);
+
+			assertEquals("Seed " + seed, new Binarization(0).fit(data).toString(),
+					new StreamingBinarization(0, EPSILON).fit(data).toString());
+		}
+	}
+
+	/** Two classes alternating along the values, sorted by value */
+	@Test
+	public void testAlternatingClasses() throws Exception {
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		atts.add(new Attribute("x"));
+		atts.add(new Attribute("class", Arrays.asList("A", "B")));
+
+		Instances data = new Instances("alternating", atts, 2000);
+		data.setClassIndex(1);
+
+		for (int i = 0; i < 1000; i++) {
+			data.add(new DenseInstance(1, new double[] { i, 0 }));
+			data.add(new DenseInstance(1, new double[] { i + 0.5, 1 }));
+		}
+
+		assertTrue(worstGap(data, 0) <= EPSILON * data.numInstances());
+	}
+
+	/** Random data sets, sorted by value */
+	@Test
+	public void testSortedStreams() throws Exception {
+		for (long seed = 1; seed <= 5; seed++) {
+			Instances data = random(seed, 3000, 0);
+
+			for (int att = 0; att < 2; att++) {
+				data.sort(att);
+				assertTrue("Seed " + seed, worstGap(data, att) <= EPSILON * data.numInstances());
+			}
+		}
+	}
+
+	/**
+	 * Data set with two numeric attributes, a nominal one and three classes. The
+	 * numeric values are rounded to a number of levels (0 for no rounding).
+	 */
+	private Instances random(long seed, int size, int levels) {
+		Random random = new Random(seed);
+
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		atts.add(new Attribute("n0"));
+		atts.add(new Attribute("n1"));
+		atts.add(new Attribute("c", Arrays.asList("a", "b", "c")));
+		atts.add(new Attribute("class", Arrays.asList("A", "B", "C")));
+
+		Instances data = new Instances("random", atts, size);
+		data.setClassIndex(3);
+
+		for (int n = 0; n < size; n++) {
+			double[] values = new double[4];
+			int label = random.nextInt(3);
+
+			values[0] = random.nextGaussian() + label;
+			values[1] = random.nextDouble();
+			values[2] = random.nextInt(3);
+			values[3] = label;
+
+			if (levels > 0) {
+				values[0] = Math.round(values[0] * levels / 6.0) / (double) levels;
+				values[1] = Math.round(values[1] * levels) / (double) levels;
+			}
+
+			if (random.nextDouble() < 0.05)
+				values[random.nextInt(3)] = Double.NaN;
+
+			data.add(new DenseInstance(1, values));
+		}
+
+		return data;
+	}
+
+	/**
+	 * Largest number of values of an attribute between two consecutive cutpoints
+	 * of the sketch, among the ranges holding cutpoints of {@link Binarization}
+	 * missed by the sketch.
+	 */
+	private int worstGap(Instances data, int att) throws Exception {
+		double[] exact = cutpoints(new Binarization(0).fit(data), att);
+		double[] found = cutpoints(new StreamingBinarization(0, EPSILON).fit(data), att);
+
+		int worst = 0;
+
+		for (int k = 0; k <= found.length; k++) {
+			double from = k == 0 ? Double.NEGATIVE_INFINITY : found[k - 1];
+			double to = k == found.length ? Double.POSITIVE_INFINITY : found[k];
+
+			boolean missed = false;
+			for (double cutpoint : exact)
+				missed |= from < cutpoint && cutpoint < to;
+
+			if (!missed)
+				continue;
+
+			int values = 0;
+			for (Instance instance : data)
+				if (!instance.isMissing(att) && from < instance.value(att) && instance.value(att) < to)
+					values++;
+
+			worst = Math.max(worst, values);
+		}
+
+		return worst;
+	}
+
+	/** Cutpoints of an attribute */
+	private double[] cutpoints(CutpointSet cutpoints, int att) {
+		double[] values = new double[cutpoints.numCutpoints(att)];
+
+		for (int i = 0; i < values.length; i++)
+			values[i] = cutpoints.valueAt(cutpoints.firstCutpoint(att) + i);
+
+		return values;
+	}
+}
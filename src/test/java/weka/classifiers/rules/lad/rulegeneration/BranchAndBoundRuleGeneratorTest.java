@@ -0,0 +1,166 @@
+package weka.classifiers.rules.lad.rulegeneration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.classifiers.rules.lad.binarization.Binarization;
+import weka.classifiers.rules.lad.binarization.CutpointSet;
+import weka.classifiers.rules.lad.core.BinaryData;
+import weka.classifiers.rules.lad.core.BinaryInstance;
+import weka.classifiers.rules.lad.core.BinaryRule;
+import weka.classifiers.rules.lad.core.Literal;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+/**
+ * Class BranchAndBoundRuleGeneratorTest
+ * 
+ * Checks the maximum pattern of every observation against a brute-force
+ * enumeration of the patterns made of its literals, on small data sets with
+ * conflicting duplicates.
+ * 
+ * @author Vaux Gomes
+ * @author Tiberius Bonates
+ * 
+ * @since Oct 17, 2026
+ * @version 1.0
+ */
+public class BranchAndBoundRuleGeneratorTest {
+
+	/** Observations no literal can exclude, within the allowed impurity */
+	@Test
+	public void testConflictingDuplicates() throws Exception {
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		atts.add(new Attribute("x"));
+		atts.add(new Attribute("y"));
+		atts.add(new Attribute("class", Arrays.asList("A", "B")));
+
+		Instances data = new Instances("conflicts", atts, 13);
+		data.setClassIndex(2);
+
+		for (int i = 0; i < 6; i++)
+			data.add(new DenseInstance(1, new double[] { 1, 3, 0 }));
+
+		data.add(new DenseInstance(1, new double[] { 1, 3, 1 }));
+
+		for (int i = 0; i < 6; i++)
+			data.add(new DenseInstance(1, new double[] { 0, i, 1 }));
+
+		for (boolean merge : new boolean[] { false, true })
+			assertEquals(0, mismatches(data, 0.7, merge));
+	}
+
+	/** Random small data sets */
+	@Test
+	public void testRandomData() throws Exception {
+		for (long seed = 1; seed <= 10; seed++)
+			for (double purity : new double[] { 0.6, 0.85, 1.0 })
+				for (boolean merge : new boolean[] { false, true })
+					assertEquals("Seed " + seed, 0, mismatches(random(seed), purity, merge));
+	}
+
+	/** Small data set with missing values and duplicates, some of other classes */
+	private Instances random(long seed) {
+		Random random = new Random(seed);
+
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		atts.add(new Attribute("n0"));
+		atts.add(new Attribute("n1"));
+		atts.add(new Attribute("c", Arrays.asList("a", "b", "c")));
+		atts.add(new Attribute("class", Arrays.asList("A", "B", "C")));
+
+		Instances data = new Instances("random", atts, 40);
+		data.setClassIndex(3);
+
+		int numClasses = 2 + random.nextInt(2);
+
+		for (int n = 0; n < 30; n++) {
+			double[] values = new double[4];
+			int label = random.nextInt(numClasses);
+
+			values[0] = Math.round(random.nextGaussian() + label);
+			values[1] = Math.round(random.nextGaussian());
+			values[2] = random.nextInt(3);
+
+			for (int i = 0; i < 3; i++)
+				if (random.nextDouble() < 0.05)
+					values[i] = Double.NaN;
+
+			values[3] = label;
+			data.add(new DenseInstance(1, values));
+
+			// Conflicting and identical duplicates
+			if (random.nextDouble() < 0.3) {
+				double[] conflicting = values.clone();
+				conflicting[3] = random.nextInt(numClasses);
+				data.add(new DenseInstance(1, conflicting));
+			}
+
+			if (random.nextDouble() < 0.3)
+				data.add(new DenseInstance(1, values.clone()));
+		}
+
+		return data;
+	}
+
+	/**
+	 * Number of observations whose best covering rule does not cover as many
+	 * observations of its class as the maximum pattern found by brute force
+	 */
+	private int mismatches(Instances data, double purity, boolean merge) throws Exception {
+		CutpointSet cutpoints = new Binarization(0).fit(data);
+		BinaryData bData = new BinaryData(data, cutpoints, merge);
+
+		BranchAndBoundRuleGenerator generator = new BranchAndBoundRuleGenerator();
+		generator.setTimeLimit(0);
+		generator.setMinimumPurity(purity);
+		generator.fit(bData);
+
+		int mismatches = 0;
+
+		for (BinaryInstance seed : bData.getInstances()) {
+			double label = seed.instanceClass();
+
+			ArrayList<Literal> literals = new ArrayList<Literal>();
+			for (int i = 0; i < seed.numAttributes(); i++)
+				if (!seed.isMissingAttribute(i))
+					literals.add(new Literal(i, seed.getBinAt(i)));
+
+			// Every pattern made of literals of the seed
+			int best = 0;
+
+			for (int m = 0; m < (1 << literals.size()); m++) {
+				ArrayList<Literal> pattern = new ArrayList<Literal>();
+				for (int i = 0; i < literals.size(); i++)
+					if ((m >> i & 1) != 0)
+						pattern.add(literals.get(i));
+
+				BinaryData coverage = bData.cover(pattern, label);
+
+				if (coverage.getCoverage(label) > 0 && coverage.getPurity(label) >= purity)
+					best = Math.max(best, coverage.getCoverage(label));
+			}
+
+			// Best rule covering the seed
+			int found = 0;
+
+			for (BinaryRule rule : generator.getRules()) {
+				BinaryData coverage = bData.cover(rule.getLiterais(), label);
+
+				if (rule.getLabel() == label && coverage.contains(seed))
+					found = Math.max(found, coverage.getCoverage(label));
+			}
+
+			if (found != best)
+				mismatches++;
+		}
+
+		return mismatches;
+	}
+}